@@ -1,13 +1,18 @@
 package ast;
 
+import common.ActionType;
 import lombok.Getter;
 
 @Getter
 public class Action extends Statement{
     private final String action;
 
+    // null for actions added by a handler, and for keywords the static check reports as not supported
+    private final ActionType type;
+
     public Action(String action) {
         this.action = action;
+        this.type = ActionType.fromKeyword(action);
     }
 
     @Override
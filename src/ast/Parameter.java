@@ -2,6 +2,7 @@ package ast;
 
 import evaluator.Memory;
 import libs.Node;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -14,6 +15,8 @@ import static evaluator.Memory.isVariableReference;
 @AllArgsConstructor
 public class Parameter extends Node {
     private String key;
+    // Read with getValue(Memory) to resolve a variable, or getRawValue as written in the script
+    @Getter(AccessLevel.NONE)
     private String value;
 
     @Override
@@ -21,9 +24,10 @@ public class Parameter extends Node {
         return v.visit(context, this);
     }
 
-    public String getValue() {
+    // Resolves a variable reference in the memory of a run
+    public String getValue(Memory memory) {
         if (isVariableReference(value)) {
-            return Memory.getInstance().unwrapAndGetVariableValue(value);
+            return memory.unwrapAndGetVariableValue(value);
         }
         return value;
     }
@@ -0,0 +1,29 @@
+package common;
+
+// The actions an instruction can run, resolved from the keyword of the instruction when it is parsed
+public enum ActionType {
+    CREATE_FILE(":create_file"),
+    CREATE_FOLDER(":create_folder"),
+    GROUP(":group"),
+    RENAME(":rename");
+
+    private final String keyword;
+
+    ActionType(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    // Returns null for a keyword that is not an action
+    public static ActionType fromKeyword(String keyword) {
+        for (ActionType type : values()) {
+            if (type.keyword.equals(keyword)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,36 @@
+package engine;
+
+import ast.Program;
+import evaluator.ActionHandler;
+
+import java.util.List;
+
+/**
+ * A script that was parsed and passed the static check. The program is only read while it runs, so a compiled
+ * script can be executed many times, also at the same time. It runs with the handlers it was checked against.
+ */
+public class CompiledScript {
+    private final String name;
+    private final Program program;
+    private final List<ActionHandler> handlers;
+
+    CompiledScript(String name, Program program, List<ActionHandler> handlers) {
+        this.name = name;
+        this.program = program;
+        this.handlers = List.copyOf(handlers);
+    }
+
+    // The file the script was read from, or "<source>" for a script compiled from a string
+    public String getName() {
+        return name;
+    }
+
+    public Program getProgram() {
+        return program;
+    }
+
+    // The handlers registered with the engine when the script was compiled
+    public List<ActionHandler> getHandlers() {
+        return handlers;
+    }
+}
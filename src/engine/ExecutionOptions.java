@@ -0,0 +1,92 @@
+package engine;
+
+import evaluator.ExecutionReporter;
+
+import java.nio.file.Path;
+
+/**
+ * How a compiled script is executed, the command line flags of Main as an immutable value. Every with method returns
+ * a copy with one option changed, starting from defaults(): one execution at a time, changes made on disk, no journal,
+ * no manifest and no reporter.
+ */
+public class ExecutionOptions {
+    private final int parallelism;
+    private final boolean dryRun;
+    private final Path journalPath;
+    private final boolean resume;
+    private final Path manifestPath;
+    private final boolean hashing;
+    private final ExecutionReporter reporter;
+
+    private ExecutionOptions(int parallelism, boolean dryRun, Path journalPath, boolean resume, Path manifestPath,
+                             boolean hashing, ExecutionReporter reporter) {
+        this.parallelism = parallelism;
+        this.dryRun = dryRun;
+        this.journalPath = journalPath;
+        this.resume = resume;
+        this.manifestPath = manifestPath;
+        this.hashing = hashing;
+        this.reporter = reporter;
+    }
+
+    public static ExecutionOptions defaults() {
+        return new ExecutionOptions(1, false, null, false, null, false, null);
+    }
+
+    // Number of EXEC statements that may run at the same time
+    public ExecutionOptions withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        return new ExecutionOptions(parallelism, dryRun, journalPath, resume, manifestPath, hashing, reporter);
+    }
+
+    // Only plans the operations, a dry run never writes the journal or the manifest
+    public ExecutionOptions withDryRun(boolean dryRun) {
+        return new ExecutionOptions(parallelism, dryRun, journalPath, resume, manifestPath, hashing, reporter);
+    }
+
+    // Records the operations in a new journal, or resumes the interrupted run of an existing one
+    public ExecutionOptions withJournal(Path journalPath, boolean resume) {
+        return new ExecutionOptions(parallelism, dryRun, journalPath, resume, manifestPath, hashing, reporter);
+    }
+
+    // Skips the copies that did not change since the run that saved the manifest
+    public ExecutionOptions withManifest(Path manifestPath, boolean hashing) {
+        return new ExecutionOptions(parallelism, dryRun, journalPath, resume, manifestPath, hashing, reporter);
+    }
+
+    // Also receives every event of the run, e.g. a ConsoleReporter to print them. The run never closes the reporter,
+    // so an AsyncExecutionReporter can be reused for many runs and is closed by whoever created it.
+    public ExecutionOptions withReporter(ExecutionReporter reporter) {
+        return new ExecutionOptions(parallelism, dryRun, journalPath, resume, manifestPath, hashing, reporter);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public Path getJournalPath() {
+        return journalPath;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public Path getManifestPath() {
+        return manifestPath;
+    }
+
+    public boolean isHashing() {
+        return hashing;
+    }
+
+    public ExecutionReporter getReporter() {
+        return reporter;
+    }
+}
@@ -0,0 +1,94 @@
+package engine;
+
+import evaluator.ExecutionPlan;
+import evaluator.InstructionResult;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * What a run of a compiled script did: the result of every execution in the order they ended, the errors and summary
+ * lines that were reported, and for a dry run the planned operations.
+ */
+public class ExecutionResult {
+    private final List<InstructionResult> instructions;
+    private final List<String> errors;
+    private final List<String> summaries;
+    private final List<ExecutionPlan.PlannedOperation> plannedOperations;
+    private final Duration duration;
+
+    ExecutionResult(List<InstructionResult> instructions, List<String> errors, List<String> summaries,
+                    List<ExecutionPlan.PlannedOperation> plannedOperations, Duration duration) {
+        this.instructions = List.copyOf(instructions);
+        this.errors = List.copyOf(errors);
+        this.summaries = List.copyOf(summaries);
+        this.plannedOperations = List.copyOf(plannedOperations);
+        this.duration = duration;
+    }
+
+    public List<InstructionResult> getInstructions() {
+        return instructions;
+    }
+
+    // Every error message of the run, also the ones of instructions that succeeded with files they skipped
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    // The summary lines the console would print, e.g. the number of executed instructions
+    public List<String> getSummaries() {
+        return summaries;
+    }
+
+    // Empty unless the run was a dry run
+    public List<ExecutionPlan.PlannedOperation> getPlannedOperations() {
+        return plannedOperations;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getExecutedCount() {
+        return instructions.size();
+    }
+
+    public int getFailedCount() {
+        return count(InstructionResult.Status.FAILED);
+    }
+
+    public int getResumedCount() {
+        return count(InstructionResult.Status.RESUMED);
+    }
+
+    public long getEntries() {
+        long entries = 0;
+        for (InstructionResult result : instructions) {
+            entries += result.getEntries();
+        }
+        return entries;
+    }
+
+    public long getBytes() {
+        long bytes = 0;
+        for (InstructionResult result : instructions) {
+            bytes += result.getBytes();
+        }
+        return bytes;
+    }
+
+    // True if no execution failed
+    public boolean isSuccessful() {
+        return getFailedCount() == 0;
+    }
+
+    private int count(InstructionResult.Status status) {
+        int count = 0;
+        for (InstructionResult result : instructions) {
+            if (result.getStatus() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
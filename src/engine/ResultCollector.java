@@ -0,0 +1,79 @@
+package engine;
+
+import evaluator.ExecutionEvent;
+import evaluator.ExecutionPlan;
+import evaluator.ExecutionReporter;
+import evaluator.InstructionResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the result of a run from its events, and hands every event on to the reporter of the options, if any.
+ * Errors are added to the result of the execution they were reported by, an instruction runs one execution at a time.
+ */
+class ResultCollector implements ExecutionReporter {
+    private final ExecutionReporter delegate;
+
+    private final ArrayList<InstructionResult> instructions = new ArrayList<>();
+    private final ArrayList<String> errors = new ArrayList<>();
+    private final ArrayList<String> summaries = new ArrayList<>();
+    private final Map<String, List<String>> pendingErrors = new HashMap<>();
+
+    ResultCollector(ExecutionReporter delegate) {
+        this.delegate = delegate;
+    }
+
+    // Errors and summaries are always collected, other events only when the delegate wants them
+    @Override
+    public boolean isEnabled(Verbosity level) {
+        return delegate != null && delegate.isEnabled(level);
+    }
+
+    @Override
+    public void report(ExecutionEvent event) {
+        collect(event);
+        if (delegate != null) {
+            delegate.report(event);
+        }
+    }
+
+    @Override
+    public void executed(InstructionResult result) {
+        synchronized (this) {
+            List<String> reported = pendingErrors.remove(result.getInstruction());
+            if (reported != null) {
+                result = result.withErrors(reported);
+            }
+            instructions.add(result);
+        }
+        if (delegate != null) {
+            delegate.executed(result);
+        }
+    }
+
+    private synchronized void collect(ExecutionEvent event) {
+        if (event.isError()) {
+            errors.add(event.getMessage());
+            if (event.getInstruction() != null) {
+                pendingErrors.computeIfAbsent(event.getInstruction(), k -> new ArrayList<>()).add(event.getMessage());
+            }
+        } else if (event.getKind().equals("summary")) {
+            summaries.add(event.getMessage());
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (delegate != null) {
+            delegate.flush();
+        }
+    }
+
+    synchronized ExecutionResult toResult(ExecutionPlan plan, Duration duration) {
+        return new ExecutionResult(instructions, errors, summaries, plan == null ? List.of() : plan.getOperations(), duration);
+    }
+}
@@ -0,0 +1,141 @@
+package engine;
+
+import ast.Program;
+import errors.SimpleFilesErrorListener;
+import errors.SimpleFilesExecutionException;
+import evaluator.ActionHandler;
+import evaluator.ActionHandlerRegistry;
+import evaluator.CopyManifest;
+import evaluator.Evaluator;
+import evaluator.ExecutionContext;
+import evaluator.ExecutionPlan;
+import evaluator.OperationJournal;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import parser.ParseToASTVisitor;
+import parser.SimpleFilesLexer;
+import parser.SimpleFilesParser;
+import staticCheck.StaticCheck;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles and executes SimpleFiles scripts inside the calling JVM. A script is compiled once, through the lexer,
+ * parser and static check, and can then be executed many times. Every execution runs with its own memory, so
+ * executions of the same or different scripts can run at the same time, and returns what it did as a result
+ * instead of printing it. Asynchronous executions run on the threads of the engine, close it when done. Handlers
+ * registered with the engine add or replace actions of the scripts it compiles afterwards.
+ */
+public class SimpleFilesEngine implements AutoCloseable {
+    private final ExecutorService pool;
+    private final List<ActionHandler> handlers = new CopyOnWriteArrayList<>();
+
+    // Runs as many asynchronous executions at the same time as there are processors
+    public SimpleFilesEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SimpleFilesEngine(int concurrentExecutions) {
+        this.pool = Executors.newFixedThreadPool(concurrentExecutions, new WorkerFactory());
+    }
+
+    // Adds or replaces the handler of an action for the scripts compiled from now on
+    public void registerHandler(ActionHandler handler) {
+        handlers.add(handler);
+    }
+
+    // Compiles the script text. Syntax errors and failed static checks throw a SimpleFilesExecutionException.
+    public CompiledScript compile(String source) {
+        return compile("<source>", CharStreams.fromString(source));
+    }
+
+    public CompiledScript compile(Path script) throws IOException {
+        return compile(script.toString(), CharStreams.fromPath(script));
+    }
+
+    // Runs the script on the calling thread and returns once every execution ended
+    public ExecutionResult execute(CompiledScript script, ExecutionOptions options) throws IOException {
+        ExecutionPlan plan = options.isDryRun() ? new ExecutionPlan() : null;
+        // a dry run changes nothing, so it never writes the journal or the manifest
+        OperationJournal journal = options.getJournalPath() == null || plan != null ? null
+                : options.isResume() ? OperationJournal.resume(options.getJournalPath()) : OperationJournal.create(options.getJournalPath());
+        ResultCollector collector = new ResultCollector(options.getReporter());
+        long start = System.nanoTime();
+        try {
+            CopyManifest manifest = options.getManifestPath() == null ? null
+                    : CopyManifest.load(options.getManifestPath(), options.isHashing());
+            Evaluator evaluator = new Evaluator(collector, options.getParallelism(), new ExecutionContext(plan, journal, manifest));
+            for (ActionHandler handler : script.getHandlers()) {
+                evaluator.registerHandler(handler);
+            }
+            script.getProgram().accept(null, evaluator);
+            if (manifest != null && plan == null) {
+                manifest.save();
+            }
+        } finally {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+        return collector.toResult(plan, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    // Runs the script on a thread of the engine. An IOException completes the future with an UncheckedIOException.
+    public CompletableFuture<ExecutionResult> executeAsync(CompiledScript script, ExecutionOptions options) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return execute(script, options);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, pool);
+    }
+
+    // Running executions finish, new asynchronous executions are rejected
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private CompiledScript compile(String name, CharStream input) {
+        SimpleFilesLexer lexer = new SimpleFilesLexer(input);
+        lexer.addErrorListener(SimpleFilesErrorListener.INSTANCE);
+        SimpleFilesParser parser = new SimpleFilesParser(new CommonTokenStream(lexer));
+        parser.addErrorListener(SimpleFilesErrorListener.INSTANCE);
+        Program program = (Program) parser.program().accept(new ParseToASTVisitor());
+
+        List<ActionHandler> registered = List.copyOf(handlers);
+        ActionHandlerRegistry registry = ActionHandlerRegistry.defaults();
+        registered.forEach(registry::register);
+        try {
+            program.accept(null, new StaticCheck(registry));
+        } catch (SimpleFilesExecutionException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new SimpleFilesExecutionException(e.getMessage());
+        }
+        return new CompiledScript(name, program, registered);
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "simplefiles-engine-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package evaluator;
+
+import ast.Condition;
+import ast.Instruction;
+
+import java.util.Set;
+
+/**
+ * Runs the instructions of one action. Handlers are looked up by the keyword of the instruction in an
+ * ActionHandlerRegistry, so an action is added by registering its handler instead of changing the Evaluator. The
+ * static check accepts the keyword of every registered handler, and the parameters it declares.
+ */
+public interface ActionHandler {
+    // The keyword of the action in a script, e.g. ":group"
+    String getKeyword();
+
+    // Parameters an instruction of this action may set. Condition parameters that only other actions accept are
+    // dropped when a condition is mapped to this action.
+    Set<String> getParameters();
+
+    // Runs the instruction with the condition it is mapped to, or null
+    void execute(InstructionRunner runner, Instruction instruction, Condition condition) throws Exception;
+}
@@ -0,0 +1,114 @@
+package evaluator;
+
+import ast.Condition;
+import ast.Instruction;
+import common.ActionType;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The handler of every supported action, keyed by its keyword. The default registry holds the built-in actions,
+ * registering a handler for a keyword replaces the one it had.
+ */
+public class ActionHandlerRegistry {
+    private static final Set<String> FILTER_PARAMETERS = Set.of("contains", "regex", "extension", "type", "modified_date",
+            "size", "comparator");
+    private static final Set<String> SCAN_PARAMETERS = Set.of("max_depth", "exclude_dir", "scan_threads", "scan_order");
+    private static final Set<String> CREATE_PARAMETERS = Set.of("path", "name", "name_file", "namefile", "count",
+            "template_path", "io_threads");
+    private static final Set<String> GROUP_PARAMETERS = union(Set.of("group_target", "path", "mode", "io_threads",
+            "copy_backend"), FILTER_PARAMETERS, SCAN_PARAMETERS);
+    private static final Set<String> RENAME_PARAMETERS = union(Set.of("path", "recursive", "mode", "find", "replace",
+            "prefix", "suffix", "sequence", "io_threads"), FILTER_PARAMETERS, SCAN_PARAMETERS);
+
+    private final Map<String, ActionHandler> handlers = new LinkedHashMap<>();
+
+    public static ActionHandlerRegistry defaults() {
+        ActionHandlerRegistry registry = new ActionHandlerRegistry();
+        registry.register(new BuiltInHandler(ActionType.CREATE_FILE, CREATE_PARAMETERS,
+                (runner, instruction, condition) -> runner.runCreateInstruction(instruction, "file", condition)));
+        registry.register(new BuiltInHandler(ActionType.CREATE_FOLDER, CREATE_PARAMETERS,
+                (runner, instruction, condition) -> runner.runCreateInstruction(instruction, "folder", condition)));
+        registry.register(new BuiltInHandler(ActionType.GROUP, GROUP_PARAMETERS, InstructionRunner::runGroupAction));
+        registry.register(new BuiltInHandler(ActionType.RENAME, RENAME_PARAMETERS, InstructionRunner::runRenameInstruction));
+        return registry;
+    }
+
+    public synchronized void register(ActionHandler handler) {
+        handlers.put(handler.getKeyword(), handler);
+    }
+
+    // Returns null if no handler is registered for the keyword
+    public synchronized ActionHandler get(String keyword) {
+        return keyword == null ? null : handlers.get(keyword);
+    }
+
+    public synchronized Collection<ActionHandler> getHandlers() {
+        return List.copyOf(handlers.values());
+    }
+
+    // Parameters of the other actions that the handler does not accept, a condition can be mapped to any action
+    public synchronized Set<String> getIgnoredParameters(String keyword) {
+        ActionHandler handler = get(keyword);
+        if (handler == null) {
+            return Set.of();
+        }
+        Set<String> ignored = new HashSet<>();
+        for (ActionHandler other : handlers.values()) {
+            ignored.addAll(other.getParameters());
+        }
+        ignored.removeAll(handler.getParameters());
+        return ignored;
+    }
+
+    // Replaces the ignored parameters of every handler in the ignore list, keyed by the action keyword
+    public synchronized void declareIgnoredParameters(IgnoreList ignoreList) {
+        for (String keyword : handlers.keySet()) {
+            ignoreList.setIgnoreList(keyword, getIgnoredParameters(keyword));
+        }
+    }
+
+    // The parameters of an action that selects files with the filter and scan parameters
+    private static Set<String> union(Set<String> own, Set<String> filter, Set<String> scan) {
+        return Stream.of(own, filter, scan).flatMap(Set::stream).collect(Collectors.toUnmodifiableSet());
+    }
+
+    private interface Execution {
+        void execute(InstructionRunner runner, Instruction instruction, Condition condition) throws Exception;
+    }
+
+    // A built-in action, run by the InstructionRunner
+    private static class BuiltInHandler implements ActionHandler {
+        private final ActionType type;
+        private final Set<String> parameters;
+        private final Execution execution;
+
+        BuiltInHandler(ActionType type, Set<String> parameters, Execution execution) {
+            this.type = type;
+            this.parameters = parameters;
+            this.execution = execution;
+        }
+
+        @Override
+        public String getKeyword() {
+            return type.getKeyword();
+        }
+
+        @Override
+        public Set<String> getParameters() {
+            return parameters;
+        }
+
+        @Override
+        public void execute(InstructionRunner runner, Instruction instruction, Condition condition) throws Exception {
+            execution.execute(runner, instruction, condition);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package evaluator;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Hands events to another reporter on a background thread. Instructions only put the event into a fixed size ring
+ * buffer, so printing never holds up a loop over many files. When the buffer is full the instruction waits for the
+ * printer to catch up instead of dropping events. The printer thread runs until the reporter is closed.
+ */
+public class AsyncExecutionReporter implements ExecutionReporter, AutoCloseable {
+    static final int DEFAULT_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 256;
+    // Put last into the buffer by close, the printer stops once it has handed on everything before it
+    private static final Object STOP = new Object();
+
+    private final ExecutionReporter delegate;
+    private final BlockingQueue<Object> buffer;
+    private final Thread printer;
+    private volatile boolean closed;
+
+    public AsyncExecutionReporter(ExecutionReporter delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    public AsyncExecutionReporter(ExecutionReporter delegate, int capacity) {
+        this.delegate = delegate;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.printer = new Thread(this::print, "simplefiles-reporter");
+        this.printer.setDaemon(true);
+        this.printer.start();
+    }
+
+    @Override
+    public boolean isEnabled(Verbosity level) {
+        return delegate.isEnabled(level);
+    }
+
+    @Override
+    public void report(ExecutionEvent event) {
+        enqueue(event);
+    }
+
+    @Override
+    public void executed(InstructionResult result) {
+        enqueue(result);
+    }
+
+    // Waits for the printer to write everything reported so far
+    @Override
+    public void flush() {
+        if (closed) {
+            return;
+        }
+        CountDownLatch flushed = new CountDownLatch(1);
+        enqueue(flushed);
+        try {
+            flushed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Prints everything reported so far and stops the printer thread. Events reported after closing are not printed.
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        enqueue(STOP);
+        try {
+            printer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(Object item) {
+        if (closed && item != STOP) {
+            return;
+        }
+        try {
+            buffer.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void print() {
+        ArrayList<Object> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(buffer.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            buffer.drainTo(batch, BATCH_SIZE - 1);
+
+            boolean stopped = false;
+            for (Object item : batch) {
+                if (stopped) {
+                    release(item);
+                } else if (item == STOP) {
+                    delegate.flush();
+                    stopped = true;
+                } else if (item instanceof CountDownLatch) {
+                    delegate.flush();
+                    release(item);
+                } else if (item instanceof InstructionResult) {
+                    delegate.executed((InstructionResult) item);
+                } else {
+                    delegate.report((ExecutionEvent) item);
+                }
+            }
+            batch.clear();
+
+            if (stopped) {
+                // a flush that raced with close must not wait for a printer that has stopped
+                buffer.drainTo(batch);
+                batch.forEach(this::release);
+                return;
+            }
+        }
+    }
+
+    private void release(Object item) {
+        if (item instanceof CountDownLatch) {
+            ((CountDownLatch) item).countDown();
+        }
+    }
+}
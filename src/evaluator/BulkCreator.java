@@ -0,0 +1,183 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the files or folders of a create instruction on several worker threads. The generated names are split into
+ * one contiguous range per worker, and every worker renders its names into its own buffer. Files can be filled from a
+ * template that is loaded once for all of them. A name that fails is collected and the others are still created, the
+ * failures are thrown together once every worker is done. Created files are returned in the order of the names.
+ */
+public class BulkCreator {
+    private final String instructionName;
+    private final String creationType;
+    private final Path folder;
+    private final ExecutionReporter reporter;
+    private final FileTemplate template;
+    private final OperationJournal journal;
+
+    public BulkCreator(String instructionName, String creationType, Path folder, ExecutionReporter reporter) {
+        this(instructionName, creationType, folder, reporter, null);
+    }
+
+    // Every created file gets the content of the template
+    public BulkCreator(String instructionName, String creationType, Path folder, ExecutionReporter reporter, FileTemplate template) {
+        this(instructionName, creationType, folder, reporter, template, null);
+    }
+
+    // Created entries are recorded in the journal, names it already records are not created again
+    public BulkCreator(String instructionName, String creationType, Path folder, ExecutionReporter reporter, FileTemplate template,
+                       OperationJournal journal) {
+        this.instructionName = instructionName;
+        this.creationType = creationType;
+        this.folder = folder;
+        this.reporter = reporter;
+        this.template = template;
+        this.journal = journal;
+    }
+
+    public ArrayList<File> create(NameTemplate names, int workers) throws SimpleFilesExecutionException {
+        File[] created = new File[names.size()];
+        String[] failures = new String[names.size()];
+
+        int rangeSize = (names.size() + workers - 1) / workers;
+        ArrayList<Callable<Void>> ranges = new ArrayList<>();
+        for (int start = 0; start < names.size(); start += rangeSize) {
+            int from = start;
+            int to = Math.min(start + rangeSize, names.size());
+            ranges.add(() -> {
+                NameTemplate.Renderer renderer = names.renderer();
+                for (int i = from; i < to; i++) {
+                    createOne(renderer.render(i), i, created, failures);
+                }
+                return null;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(workers, ranges.size()), new WorkerFactory());
+        try {
+            for (Future<Void> range : pool.invokeAll(ranges)) {
+                range.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SimpleFilesExecutionException(String.format("Error encountered running instruction: %s. Interrupted while creating %ss", instructionName, creationType));
+        } catch (ExecutionException e) {
+            throw new SimpleFilesExecutionException(String.format("Error encountered running instruction: %s. %s", instructionName, e.getCause().getMessage()));
+        } finally {
+            pool.shutdown();
+        }
+
+        throwFailures(names, failures);
+
+        ArrayList<File> result = new ArrayList<>(names.size());
+        for (File file : created) {
+            if (file != null) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    private void createOne(String name, int index, File[] created, String[] failures) {
+        Path path = folder.resolve(name);
+        ExecutionPlan.Operation operation = "file".equals(creationType) ? ExecutionPlan.Operation.CREATE_FILE : ExecutionPlan.Operation.CREATE_FOLDER;
+        if (journal != null && journal.getCompletedTarget(instructionName, operation, path) != null && Files.exists(path)) {
+            created[index] = path.toFile();
+            return;
+        }
+        try {
+            if ("file".equals(creationType) && template != null) {
+                // claim the name first so an existing file is never overwritten by the template
+                Files.createFile(path);
+                try {
+                    template.writeTo(path);
+                } catch (IOException e) {
+                    Files.deleteIfExists(path);
+                    throw e;
+                }
+                created[index] = path.toFile();
+                reporter.file(instructionName, "created", path.toString(), "File created using template: " + name + " at " + path);
+            } else if ("file".equals(creationType)) {
+                Files.createFile(path);
+                created[index] = path.toFile();
+                reporter.file(instructionName, "created", path.toString(), "File created: " + name + " at " + path);
+            } else {
+                createFolder(path);
+                created[index] = path.toFile();
+                reporter.file(instructionName, "created", path.toString(), "Folder created: " + name + " at " + path);
+            }
+            if (journal != null) {
+                journal.record(instructionName, operation, null, path);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // an existing file is skipped, the same way a serial create skips it
+            if ("file".equals(creationType)) {
+                reporter.file(instructionName, "create_failed", path.toString(), "Failed to create file: " + name + " at " + path);
+            } else {
+                reporter.fileError(instructionName, "create_failed", path.toString(), "Failed to create folder: " + name + " at " + path);
+            }
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            failures[index] = e.getClass().getSimpleName();
+        }
+    }
+
+    // Folder names may contain separators, missing parents are created the way mkdirs would
+    private static void createFolder(Path path) throws IOException {
+        try {
+            Files.createDirectory(path);
+        } catch (NoSuchFileException e) {
+            Files.createDirectories(path.getParent());
+            Files.createDirectory(path);
+        }
+    }
+
+    private void throwFailures(NameTemplate names, String[] failures) {
+        StringBuilder summary = new StringBuilder();
+        int failed = 0;
+        for (int i = 0; i < failures.length; i++) {
+            if (failures[i] == null) {
+                continue;
+            }
+            if (failed < 10) {
+                summary.append(failed == 0 ? " " : ", ").append(names.render(i)).append(" (").append(failures[i]).append(")");
+            }
+            failed++;
+        }
+        if (failed == 0) {
+            return;
+        }
+        if (failed > 10) {
+            summary.append(String.format(" and %d more", failed - 10));
+        }
+        String msg = String.format("Error encountered running instruction: %s. Failed on %d %s creation(s):%s",
+                instructionName, failed, creationType, summary);
+        throw new SimpleFilesExecutionException(msg);
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "simplefiles-create-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package evaluator;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * Prints events on the calling thread, errors to the error stream. As text only the message of an event is printed,
+ * as NDJSON every event is one JSON object on its own line of the output stream.
+ */
+public class ConsoleReporter implements ExecutionReporter {
+    public enum Format {
+        TEXT, NDJSON
+    }
+
+    private final Verbosity verbosity;
+    private final Format format;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ConsoleReporter() {
+        this(Verbosity.FILE, Format.TEXT);
+    }
+
+    public ConsoleReporter(Verbosity verbosity, Format format) {
+        this(verbosity, format, System.out, System.err);
+    }
+
+    public ConsoleReporter(Verbosity verbosity, Format format, PrintStream out, PrintStream err) {
+        this.verbosity = verbosity;
+        this.format = format;
+        this.out = out;
+        this.err = err;
+    }
+
+    @Override
+    public boolean isEnabled(Verbosity level) {
+        return level.ordinal() <= verbosity.ordinal();
+    }
+
+    @Override
+    public void report(ExecutionEvent event) {
+        if (!event.isError() && !isEnabled(event.getLevel())) {
+            return;
+        }
+        if (format == Format.NDJSON) {
+            out.println(toJson(event));
+        } else if (event.isError()) {
+            err.println(event.getMessage());
+        } else {
+            out.println(event.getMessage());
+        }
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+        err.flush();
+    }
+
+    static String toJson(ExecutionEvent event) {
+        StringBuilder json = new StringBuilder("{");
+        appendField(json, "level", event.getLevel().name().toLowerCase(Locale.ROOT));
+        json.append(",\"error\":").append(event.isError());
+        if (event.getInstruction() != null) {
+            json.append(',');
+            appendField(json, "instruction", event.getInstruction());
+        }
+        json.append(',');
+        appendField(json, "event", event.getKind());
+        if (event.getPath() != null) {
+            json.append(',');
+            appendField(json, "path", event.getPath());
+        }
+        json.append(',');
+        appendField(json, "message", event.getMessage());
+        return json.append('}').toString();
+    }
+
+    private static void appendField(StringBuilder json, String name, String value) {
+        json.append('"').append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,153 @@
+package evaluator;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copies single entries for the group action. Regular files are copied with the first strategy that works:
+ * a reflink clone with cp, only when asked for since it starts a process per file, FileChannel.transferTo which the
+ * kernel turns into copy_file_range or sendfile so the data never passes through the heap, and Files.copy. On btrfs
+ * and xfs copy_file_range already clones the file.
+ * Folders are created, an existing folder counts as copied, and links use Files.copy. The number of files and bytes
+ * copied by every strategy is counted.
+ */
+public class CopyBackend {
+    public enum Strategy {
+        REFLINK, TRANSFER, STREAM;
+
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Strategy preferred;
+    private final EnumMap<Strategy, LongAdder> files = new EnumMap<>(Strategy.class);
+    private final EnumMap<Strategy, LongAdder> bytes = new EnumMap<>(Strategy.class);
+
+    // Cleared after the first failed clone so the remaining files do not spawn a process that is bound to fail
+    private volatile boolean reflinkAvailable;
+
+    public CopyBackend(Strategy preferred) {
+        this.preferred = preferred;
+        this.reflinkAvailable = preferred == Strategy.REFLINK && isLinux();
+        for (Strategy strategy : Strategy.values()) {
+            files.put(strategy, new LongAdder());
+            bytes.put(strategy, new LongAdder());
+        }
+    }
+
+    // Parses the copy_backend parameter. Returns null for an unknown value. "auto" transfers, the kernel already
+    // clones with copy_file_range on file systems that support it, without a process per file.
+    public static CopyBackend forName(String name) {
+        switch (name) {
+            case "auto":
+            case "transfer":
+                return new CopyBackend(Strategy.TRANSFER);
+            case "reflink":
+                return new CopyBackend(Strategy.REFLINK);
+            case "stream":
+                return new CopyBackend(Strategy.STREAM);
+            default:
+                return null;
+        }
+    }
+
+    // Copies the entry over the target, replacing an existing file. Returns the strategy that did the copy.
+    public Strategy copy(FileEntry entry, Path target) throws IOException {
+        Strategy used;
+        long size = 0;
+        if (entry.isDirectory()) {
+            // only the folder itself is copied, its content is copied entry by entry and may already be in it
+            Files.createDirectories(target);
+            used = Strategy.STREAM;
+        } else if (!entry.getAttributes().isRegularFile() || Files.isDirectory(target)) {
+            Files.copy(entry.getPath(), target, StandardCopyOption.REPLACE_EXISTING);
+            used = Strategy.STREAM;
+        } else if (reflinkAvailable && reflink(entry.getPath(), target)) {
+            size = entry.getAttributes().size();
+            used = Strategy.REFLINK;
+        } else if (preferred != Strategy.STREAM) {
+            size = transfer(entry.getPath(), target);
+            used = Strategy.TRANSFER;
+        } else {
+            Files.copy(entry.getPath(), target, StandardCopyOption.REPLACE_EXISTING);
+            size = entry.getAttributes().size();
+            used = Strategy.STREAM;
+        }
+
+        files.get(used).increment();
+        bytes.get(used).add(size);
+        return used;
+    }
+
+    public long getFileCount(Strategy strategy) {
+        return files.get(strategy).sum();
+    }
+
+    public long getByteCount(Strategy strategy) {
+        return bytes.get(strategy).sum();
+    }
+
+    // One line of metrics, listing only the strategies that copied something
+    public String describeMetrics() {
+        StringBuilder metrics = new StringBuilder();
+        for (Strategy strategy : Strategy.values()) {
+            long count = getFileCount(strategy);
+            if (count == 0) {
+                continue;
+            }
+            if (metrics.length() > 0) {
+                metrics.append(", ");
+            }
+            metrics.append(String.format("%s %d (%d bytes)", strategy.getName(), count, getByteCount(strategy)));
+        }
+        return metrics.toString();
+    }
+
+    private boolean reflink(Path source, Path target) {
+        try {
+            Process process = new ProcessBuilder("cp", "--reflink=always", "--", source.toString(), target.toString())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (process.waitFor(30, TimeUnit.SECONDS) && process.exitValue() == 0) {
+                return true;
+            }
+            process.destroyForcibly();
+        } catch (IOException e) {
+            // no cp on the path, nothing to clone with
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        reflinkAvailable = false;
+        return false;
+    }
+
+    private static long transfer(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long transferred = in.transferTo(position, size - position, out);
+                if (transferred <= 0) {
+                    break; // the source was truncated while copying
+                }
+                position += transferred;
+            }
+            return position;
+        }
+    }
+
+    private static boolean isLinux() {
+        return System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("linux");
+    }
+}
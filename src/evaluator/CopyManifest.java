@@ -0,0 +1,166 @@
+package evaluator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The files copied by the group instructions of a script, kept between runs so that a copy whose source and
+ * destination did not change since the last run is skipped. A source is unchanged when its size and modified date
+ * are the ones recorded, or, with hashing, when its content still has the recorded SHA-256. A destination is
+ * unchanged when its size and modified date are the ones recorded after the copy. Only regular files are recorded,
+ * a folder is unchanged when its destination folder exists.
+ */
+public class CopyManifest {
+    private static final int HASH_BUFFER = 64 * 1024;
+
+    // The source and destination as they were after the last copy
+    private static class Record {
+        private final long size;
+        private final long modified;
+        private final String hash;
+        private final long destinationSize;
+        private final long destinationModified;
+
+        Record(long size, long modified, String hash, long destinationSize, long destinationModified) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.destinationSize = destinationSize;
+            this.destinationModified = destinationModified;
+        }
+    }
+
+    private final Path file;
+    private final boolean hashing;
+
+    // Keyed by the source and destination path, a source can be copied by several instructions
+    private final Map<String, Record> records = new ConcurrentHashMap<>();
+
+    private CopyManifest(Path file, boolean hashing) {
+        this.file = file;
+        this.hashing = hashing;
+    }
+
+    // Reads the manifest of the last run, a missing manifest is empty
+    public static CopyManifest load(Path file, boolean hashing) throws IOException {
+        CopyManifest manifest = new CopyManifest(file, hashing);
+        if (!Files.exists(file)) {
+            return manifest;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 7) {
+                continue;
+            }
+            try {
+                manifest.records.put(key(Path.of(fields[0]), Path.of(fields[4])), new Record(Long.parseLong(fields[1]),
+                        Long.parseLong(fields[2]), fields[3].equals("-") ? null : fields[3], Long.parseLong(fields[5]),
+                        Long.parseLong(fields[6])));
+            } catch (NumberFormatException e) {
+                // a damaged record only costs a copy
+            }
+        }
+        return manifest;
+    }
+
+    // True if the last run copied the source to the destination and neither of them changed since
+    public boolean isInSync(FileEntry source, Path destination) throws IOException {
+        BasicFileAttributes attributes = source.getAttributes();
+        if (attributes.isDirectory()) {
+            // a folder copy only creates the folder, its content is checked entry by entry
+            return Files.isDirectory(destination);
+        }
+        if (!attributes.isRegularFile()) {
+            return false;
+        }
+        String key = key(source.getPath(), destination);
+        Record record = records.get(key);
+        if (record == null) {
+            return false;
+        }
+
+        BasicFileAttributes destinationAttributes;
+        try {
+            destinationAttributes = Files.readAttributes(destination, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (destinationAttributes.size() != record.destinationSize
+                || destinationAttributes.lastModifiedTime().toMillis() != record.destinationModified) {
+            return false;
+        }
+
+        long modified = attributes.lastModifiedTime().toMillis();
+        if (attributes.size() == record.size && modified == record.modified) {
+            return true;
+        }
+        // a touched source with the same content only gets its new modified date recorded
+        if (hashing && record.hash != null && attributes.size() == record.size && record.hash.equals(hash(source.getPath()))) {
+            records.put(key, new Record(record.size, modified, record.hash, record.destinationSize, record.destinationModified));
+            return true;
+        }
+        return false;
+    }
+
+    // Records a source after it was copied to the destination
+    public void record(FileEntry source, Path destination) throws IOException {
+        BasicFileAttributes attributes = source.getAttributes();
+        if (!attributes.isRegularFile()) {
+            return;
+        }
+        BasicFileAttributes destinationAttributes = Files.readAttributes(destination, BasicFileAttributes.class);
+        records.put(key(source.getPath(), destination), new Record(attributes.size(), attributes.lastModifiedTime().toMillis(),
+                hashing ? hash(source.getPath()) : null, destinationAttributes.size(), destinationAttributes.lastModifiedTime().toMillis()));
+    }
+
+    // Replaces the manifest file with the current records, records whose source no longer exists are dropped
+    public void save() throws IOException {
+        ArrayList<String> lines = new ArrayList<>(records.size());
+        for (Map.Entry<String, Record> entry : records.entrySet()) {
+            Record record = entry.getValue();
+            String[] paths = entry.getKey().split("\t");
+            if (!Files.exists(Path.of(paths[0]))) {
+                records.remove(entry.getKey());
+                continue;
+            }
+            lines.add(String.join("\t", paths[0], String.valueOf(record.size), String.valueOf(record.modified),
+                    record.hash == null ? "-" : record.hash, paths[1], String.valueOf(record.destinationSize),
+                    String.valueOf(record.destinationModified)));
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, lines, StandardCharsets.UTF_8);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String key(Path source, Path destination) {
+        return source.toAbsolutePath().normalize() + "\t" + destination.toAbsolutePath().normalize();
+    }
+
+    private static String hash(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[HASH_BUFFER];
+        try (InputStream in = Files.newInputStream(path)) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
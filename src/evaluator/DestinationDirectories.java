@@ -0,0 +1,119 @@
+package evaluator;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The folders a group instruction has already made in its output tree. Every transfer needs the parent folder of its
+ * destination, with this cache it is created once instead of being checked again for every file in it.
+ * When the grouped entries are known before the transfers start, all their parent folders can be created up front,
+ * one depth at a time so that every level only needs a single mkdir per folder.
+ */
+public class DestinationDirectories {
+    private final Set<Path> ensured = ConcurrentHashMap.newKeySet();
+
+    // The root of the output tree, which must already exist
+    public DestinationDirectories(Path root) {
+        ensured.add(root.toAbsolutePath().normalize());
+    }
+
+    // Makes sure the folder exists, only touching the file system the first time it is asked for
+    public void ensure(Path folder) throws IOException {
+        Path key = folder.toAbsolutePath().normalize();
+        if (ensured.contains(key)) {
+            return;
+        }
+        Files.createDirectories(key);
+        ensured.add(key);
+    }
+
+    // Creates all the folders top down, the folders of one depth on up to workers threads
+    public void prepare(Collection<Path> folders, int workers) throws IOException {
+        TreeMap<Integer, ArrayList<Path>> levels = new TreeMap<>();
+        for (Path folder : folders) {
+            // missing ancestors are created as well, each in its own level
+            for (Path key = folder.toAbsolutePath().normalize(); key != null && !ensured.contains(key); key = key.getParent()) {
+                ArrayList<Path> level = levels.computeIfAbsent(key.getNameCount(), depth -> new ArrayList<>());
+                if (ensured.add(key)) {
+                    level.add(key);
+                }
+            }
+        }
+        if (levels.isEmpty()) {
+            return;
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = workers > 1 ? Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "simplefiles-mkdir-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        try {
+            for (ArrayList<Path> level : levels.values()) {
+                if (pool == null || level.size() == 1) {
+                    for (Path folder : level) {
+                        makeFolder(folder);
+                    }
+                } else {
+                    makeFolders(pool, level);
+                }
+            }
+        } catch (IOException e) {
+            // folders that were not made yet are made on demand by ensure
+            ensured.removeIf(folder -> !Files.isDirectory(folder));
+            throw e;
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static void makeFolders(ExecutorService pool, ArrayList<Path> level) throws IOException {
+        ArrayList<Callable<Void>> tasks = new ArrayList<>(level.size());
+        for (Path folder : level) {
+            tasks.add(() -> {
+                makeFolder(folder);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> task : pool.invokeAll(tasks)) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while creating output folders.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    // The parent was made in the level before, so a single mkdir is enough
+    private static void makeFolder(Path folder) throws IOException {
+        try {
+            Files.createDirectory(folder);
+        } catch (FileAlreadyExistsException e) {
+            if (!Files.isDirectory(folder)) {
+                throw e;
+            }
+        }
+    }
+}
@@ -5,10 +5,14 @@ import ast.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileStore;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import errors.SimpleFilesExecutionException;
 import evaluator.DynamicChecks;
@@ -18,35 +22,129 @@ public class Evaluator implements SimpleFilesVisitor<Object,Object>{
 
 
 
-    enum supported_actions {
-        create_file,
-        create_folder,
-        group,
-        rename
+    // Read by the threads of parallel executions while the program is still being visited
+    Map<String, Instruction> instructions = new ConcurrentHashMap<>();
+    Map<String, Condition> conditions = new ConcurrentHashMap<>();
+    boolean userOSIsWindows;
 
+    InstructionRunner instructionRunner;
 
-    }
+    Memory memory;
 
-    HashMap<String, Instruction> instructions = new HashMap<>();
-    HashMap<String, Condition> conditions = new HashMap<>();
-    boolean userOSIsWindows;
+    ExecutionReporter reporter;
+    AtomicInteger executedInstructions = new AtomicInteger();
+    AtomicInteger failedInstructions = new AtomicInteger();
 
-    InstructionRunner instructionRunner;
+    // Number of EXEC statements that may run at the same time
+    int parallelism;
+
+    // Set for a dry run, which reports the planned operations instead of doing them
+    ExecutionPlan plan;
 
-    Memory memory = Memory.getInstance();
+    // Set to record the operations, or resume from the operations of an interrupted run
+    OperationJournal journal;
 
+    // Runs the instructions of every action
+    ActionHandlerRegistry handlers = ActionHandlerRegistry.defaults();
+
+    // Prints synchronously, callers that want an AsyncExecutionReporter own it and close it when done
     public Evaluator(){
-        this.instructionRunner = new InstructionRunner();
+        this(new ConsoleReporter());
+    }
+
+    public Evaluator(ExecutionReporter reporter){
+        this(reporter, 1);
+    }
+
+    // Runs with empty memory that no other evaluator sees
+    public Evaluator(ExecutionReporter reporter, int parallelism){
+        this(reporter, parallelism, new ExecutionContext());
+    }
+
+    // Runs with the state of the context only, evaluators with their own context can run at the same time
+    public Evaluator(ExecutionReporter reporter, int parallelism, ExecutionContext context){
+        this.reporter = reporter;
+        this.memory = context.getMemory();
+        this.plan = context.getPlan();
+        this.journal = context.getJournal();
+        this.instructionRunner = new InstructionRunner(reporter, context);
+        this.parallelism = parallelism;
     }
 
     @Override
     public Object visit(Object context, Program p) {
-        for (Statement s : p.getStatements()) {
-            s.accept(context, this);
+        if (parallelism > 1) {
+            visitInParallel(context, p);
+        } else {
+            for (Statement s : p.getStatements()) {
+                s.accept(context, this);
+            }
         }
+        reporter.summary(String.format("Executed %d instruction(s), %d failed", executedInstructions.get(), failedInstructions.get()));
+        if (plan != null) {
+            reportPlan();
+        }
+        reporter.flush();
         return null;
     }
 
+    // Runs independent executions at the same time, an execution still waits for the earlier ones it depends on.
+    // Variables and redefined instructions or conditions change what the earlier executions see, so all running
+    // executions are finished before one of them is visited.
+    private void visitInParallel(Object context, Program p) {
+        ExecutionScheduler scheduler = new ExecutionScheduler(parallelism, memory, reporter);
+        try {
+            for (Statement s : p.getStatements()) {
+                if (s instanceof ExecuteInstruction e) {
+                    scheduler.submit(instructions.get(e.getInstructionName()), null, instructions.keySet(), () -> s.accept(context, this));
+                } else if (s instanceof ExecuteCondMap e) {
+                    scheduler.submit(instructions.get(e.getInstructionName()), conditions.get(e.getConditionName()),
+                            instructions.keySet(), () -> s.accept(context, this));
+                } else {
+                    if (s instanceof Variable
+                            || (s instanceof Instruction i && instructions.containsKey(i.getName()))
+                            || (s instanceof Condition c && conditions.containsKey(c.getName()))) {
+                        scheduler.await();
+                    }
+                    s.accept(context, this);
+                }
+            }
+            scheduler.await();
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    // Lists the planned operations, and their totals for every file store they write to. The duration of each store is
+    // estimated with the throughput measured in the folder its first operation writes to.
+    private void reportPlan() {
+        for (ExecutionPlan.PlannedOperation operation : plan.getOperations()) {
+            reporter.file(operation.getInstructionName(), "planned", operation.getDestination().toString(), operation.describe());
+        }
+        Map<FileStore, List<ExecutionPlan.PlannedOperation>> byStore;
+        try {
+            byStore = plan.groupByFileStore();
+        } catch (IOException e) {
+            reporter.summary(String.format("Planned %d operation(s), unable to find their file stores: %s", plan.getOperations().size(), e.getMessage()));
+            return;
+        }
+        if (byStore.isEmpty()) {
+            reporter.summary("Planned 0 operation(s)");
+        }
+        for (Map.Entry<FileStore, List<ExecutionPlan.PlannedOperation>> store : byStore.entrySet()) {
+            List<ExecutionPlan.PlannedOperation> operations = store.getValue();
+            Path folder = ExecutionPlan.nearestExistingFolder(operations.get(0).getDestination());
+            try {
+                ExecutionPlan.Throughput throughput = ExecutionPlan.Throughput.measure(folder);
+                reporter.summary(String.format("%s on file store %s, measured in %s",
+                        ExecutionPlan.describeTotals(operations, throughput), store.getKey(), folder));
+            } catch (IOException e) {
+                reporter.summary(String.format("Planned %d operation(s) on file store %s, unable to measure throughput in %s: %s",
+                        operations.size(), store.getKey(), folder, e.getMessage()));
+            }
+        }
+    }
+
     @Override
     public Object visit(Object context, Instruction i) {
         instructions.put(i.getName(), i);
@@ -61,79 +159,68 @@ public class Evaluator implements SimpleFilesVisitor<Object,Object>{
     }
 
     public Object visit(Object context, ExecuteInstruction e) {
-        String inst_name = e.getInstructionName();
-        Instruction inst = instructions.get(inst_name);
-        String inst_action = inst.getAction().getAction();
-
-//        memory.printMemory(); // uncomment for memory debugging
-        if (Objects.equals(inst_action, ":" +supported_actions.create_file)){
-            try {
-                instructionRunner.runCreateInstruction(inst, "file", null);
-            } catch (SimpleFilesExecutionException ex) {
-                System.err.println(ex.getMessage());
-            }
-        }else if (Objects.equals(inst_action, ":" +supported_actions.create_folder)){
-            try {
-                instructionRunner.runCreateInstruction(inst, "folder", null);
-            } catch (SimpleFilesExecutionException ex) {
-                System.err.println(ex.getMessage());
-            }
-        }else if (Objects.equals(inst_action, ":" +supported_actions.group)){
-            try {
-                instructionRunner.runGroupAction(inst, null);
-            } catch (Exception ex) {
-                System.err.println(ex.getMessage());
-            }
-        }else if (Objects.equals(inst_action, ":" + supported_actions.rename)){
-            try {
-                instructionRunner.runRenameInstruction(inst, null);
-            } catch (Exception ex) {
-                System.err.println(ex.getMessage());
-            }
-        }else {
-            // If inst_action is not supported
-            System.err.println("Unsupported action: " + inst_action);
-        }
-
+        execute(e.getInstructionName(), null);
         return null;
     }
     @Override
     public Object visit(Object context, ExecuteCondMap e) {
-        String inst_name = e.getInstructionName();
+        execute(e.getInstructionName(), conditions.get(e.getConditionName()));
+        return null;
+    }
+
+    // Runs the instruction with the condition, or null. With a journal, executions an earlier run completed are skipped.
+    private void execute(String inst_name, Condition condition) {
         Instruction inst = instructions.get(inst_name);
-        String inst_action = inst.getAction().getAction();
+        long start = System.nanoTime();
 
-        Condition condition = conditions.get(e.getConditionName());
-        if (Objects.equals(inst_action, ":" +supported_actions.create_file)){
-            try {
-                instructionRunner.runCreateInstruction(inst, "file", condition);
-            } catch (SimpleFilesExecutionException ex) {
-                System.err.println(ex.getMessage());
-            }
-        }else if (Objects.equals(inst_action, ":" +supported_actions.create_folder)){
-            try {
-                instructionRunner.runCreateInstruction(inst, "folder", condition);
-            } catch (SimpleFilesExecutionException ex) {
-                System.err.println(ex.getMessage());
-            }
-        }else if (Objects.equals(inst_action, ":" +supported_actions.group)){
-            try {
-                instructionRunner.runGroupAction(inst, condition);
-            } catch (Exception ex) {
-                System.err.println(ex.getMessage());
-            }
-        }else if (Objects.equals(inst_action, ":" + supported_actions.rename)){
+        if (journal != null && journal.begin(inst_name, memory)) {
+            reporter.instruction(inst_name, "resumed", String.format("Instruction %s was completed by an earlier run, skipped", inst_name));
+            executedInstructions.incrementAndGet();
+            reportResult(inst_name, condition, InstructionResult.Status.RESUMED, start);
+            return;
+        }
+
+        ActionHandler handler = handlers.get(inst.getAction().getAction());
+        boolean succeeded = false;
+//        memory.printMemory(); // uncomment for memory debugging
+        if (handler == null) {
+            // If the action is not supported
+            reporter.error(inst_name, "Unsupported action: " + inst.getAction().getAction());
+            failedInstructions.incrementAndGet();
+        } else {
             try {
-                instructionRunner.runRenameInstruction(inst, condition);
+                handler.execute(instructionRunner, inst, condition);
+                succeeded = true;
             } catch (Exception ex) {
-                System.err.println(ex.getMessage());
+                reportFailure(inst_name, ex);
             }
-        }else {
-            // If inst_action is not supported
-            System.err.println("Unsupported action: " + inst_action);
         }
 
-        return null;
+        // a failed execution is not checkpointed, a resumed run executes it again
+        if (journal != null && succeeded) {
+            journal.complete(inst_name, memory);
+        }
+        executedInstructions.incrementAndGet();
+        reportResult(inst_name, condition, succeeded ? InstructionResult.Status.SUCCEEDED : InstructionResult.Status.FAILED, start);
+    }
+
+    // Reports what the execution that started at the given time did, a failed one is not counted
+    private void reportResult(String inst_name, Condition condition, InstructionResult.Status status, long start) {
+        long[] totals = instructionRunner.takeTotals(inst_name);
+        boolean counted = status == InstructionResult.Status.SUCCEEDED;
+        reporter.executed(new InstructionResult(inst_name, condition == null ? null : condition.getName(), status,
+                counted ? totals[0] : 0, counted ? totals[1] : 0, Duration.ofNanos(System.nanoTime() - start), List.of()));
+    }
+
+    // Adds or replaces the handler of an action
+    public void registerHandler(ActionHandler handler) {
+        handlers.register(handler);
+        handlers.declareIgnoredParameters(instructionRunner.ignoreList);
+    }
+
+    private void reportFailure(String inst_name, Exception ex) {
+        reporter.error(inst_name, String.valueOf(ex.getMessage()));
+        failedInstructions.incrementAndGet();
     }
 
 //    private void doGroupAction(Instruction instruction){
@@ -0,0 +1,48 @@
+package evaluator;
+
+/**
+ * The state of one run of a script: the variables and file groups in memory, the parameters every action ignores,
+ * and the optional dry run plan, journal and incremental manifest. Runs with their own context share nothing, so
+ * several scripts can run at the same time in one JVM. A dry run changes nothing, so it never writes the journal.
+ */
+public class ExecutionContext {
+    private final Memory memory;
+    private final IgnoreList ignoreList;
+    private final ExecutionPlan plan;
+    private final OperationJournal journal;
+    private final CopyManifest manifest;
+
+    // A context with empty memory that really does its operations
+    public ExecutionContext() {
+        this(null, null, null);
+    }
+
+    // A context with empty memory, plan, journal and manifest may be null
+    public ExecutionContext(ExecutionPlan plan, OperationJournal journal, CopyManifest manifest) {
+        this.memory = new Memory();
+        this.ignoreList = new IgnoreList();
+        this.plan = plan;
+        this.journal = plan == null ? journal : null;
+        this.manifest = manifest;
+    }
+
+    public Memory getMemory() {
+        return memory;
+    }
+
+    public IgnoreList getIgnoreList() {
+        return ignoreList;
+    }
+
+    public ExecutionPlan getPlan() {
+        return plan;
+    }
+
+    public OperationJournal getJournal() {
+        return journal;
+    }
+
+    public CopyManifest getManifest() {
+        return manifest;
+    }
+}
@@ -0,0 +1,50 @@
+package evaluator;
+
+/**
+ * Something that happened while executing a program, e.g. a file that was created or an instruction that failed.
+ * Events are immutable so they can be handed to another thread for printing.
+ */
+public class ExecutionEvent {
+    private final ExecutionReporter.Verbosity level;
+    private final boolean error;
+    private final String instruction;
+    private final String kind;
+    private final String path;
+    private final String message;
+
+    public ExecutionEvent(ExecutionReporter.Verbosity level, boolean error, String instruction, String kind, String path, String message) {
+        this.level = level;
+        this.error = error;
+        this.instruction = instruction;
+        this.kind = kind;
+        this.path = path;
+        this.message = message;
+    }
+
+    public ExecutionReporter.Verbosity getLevel() {
+        return level;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public String getInstruction() {
+        return instruction;
+    }
+
+    // Short machine readable name of the event, e.g. "created" or "failed"
+    public String getKind() {
+        return kind;
+    }
+
+    // The file the event is about, null for instruction and summary events
+    public String getPath() {
+        return path;
+    }
+
+    // The human readable line printed for the event
+    public String getMessage() {
+        return message;
+    }
+}
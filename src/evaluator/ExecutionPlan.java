@@ -0,0 +1,428 @@
+package evaluator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The operations a dry run would have done, and the file system as it would look after them. Instructions that run
+ * in a dry run record their operations here instead of touching the disk. Reads go to the disk, except for the
+ * entries the plan already created, moved or renamed, so chained instructions see the results of the earlier ones.
+ */
+public class ExecutionPlan {
+    public enum Operation {
+        CREATE_FILE, CREATE_FOLDER, MOVE, COPY, RENAME;
+
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', ' ');
+        }
+    }
+
+    // A single planned operation, source is null for creates
+    public static class PlannedOperation {
+        private final String instructionName;
+        private final Operation operation;
+        private final Path source;
+        private final Path destination;
+        private final long bytes;
+        private final boolean metadataOnly;
+
+        PlannedOperation(String instructionName, Operation operation, Path source, Path destination, long bytes, boolean metadataOnly) {
+            this.instructionName = instructionName;
+            this.operation = operation;
+            this.source = source;
+            this.destination = destination;
+            this.bytes = bytes;
+            this.metadataOnly = metadataOnly;
+        }
+
+        public String getInstructionName() {
+            return instructionName;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public Path getSource() {
+            return source;
+        }
+
+        public Path getDestination() {
+            return destination;
+        }
+
+        // Bytes the operation writes, zero for renames and moves on the same file store
+        public long getBytes() {
+            return metadataOnly ? 0 : bytes;
+        }
+
+        public String describe() {
+            if (source == null) {
+                return String.format("Plan: %s %s (%d bytes)", operation.getName(), destination, getBytes());
+            }
+            return String.format("Plan: %s %s to %s (%d bytes)", operation.getName(), source, destination, getBytes());
+        }
+    }
+
+    private final ArrayList<PlannedOperation> operations = new ArrayList<>();
+
+    // The simulated changes on top of the disk
+    private final Map<Path, FileEntry> added = new ConcurrentHashMap<>();
+    private final Set<Path> removed = ConcurrentHashMap.newKeySet();
+
+    // Reads an entry as it would be after the planned operations, null if it would not exist
+    public FileEntry read(Path path) {
+        Path key = path.toAbsolutePath().normalize();
+        FileEntry entry = added.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        if (isRemoved(key)) {
+            return null;
+        }
+        return FileEntry.read(key);
+    }
+
+    public boolean exists(Path path) {
+        return read(path) != null;
+    }
+
+    public boolean isDirectory(Path path) {
+        FileEntry entry = read(path);
+        return entry != null && entry.isDirectory();
+    }
+
+    // True if the planned operations moved the path, or a folder it is in, away
+    public boolean isRemoved(Path path) {
+        Path key = path.toAbsolutePath().normalize();
+        for (Path parent = key; parent != null; parent = parent.getParent()) {
+            if (removed.contains(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Walks the tree as it would be after the planned operations, with the depth and exclusions of the walker: the
+    // entries on disk the plan did not move away, and the entries the plan added. Entries are walked in name order.
+    public void walk(Path root, TreeWalker walker, Predicate<FileEntry> filter, Consumer<FileEntry> sink) throws IOException {
+        Path start = root.toAbsolutePath().normalize();
+        FileEntry rootEntry = read(start);
+        if (rootEntry == null || !rootEntry.isDirectory()) {
+            throw new NoSuchFileException(start.toString());
+        }
+        if (walker.includesRoot() && filter.test(rootEntry)) {
+            sink.accept(rootEntry);
+        }
+        // the entries added so far, by the folder they are in
+        Map<Path, List<FileEntry>> addedByFolder = new HashMap<>();
+        for (FileEntry entry : added.values()) {
+            if (entry.getPath().getParent() != null) {
+                addedByFolder.computeIfAbsent(entry.getPath().getParent(), k -> new ArrayList<>()).add(entry);
+            }
+        }
+        walkFolder(start, 1, walker, addedByFolder, filter, sink);
+    }
+
+    private void walkFolder(Path folder, int depth, TreeWalker walker, Map<Path, List<FileEntry>> addedByFolder,
+                            Predicate<FileEntry> filter, Consumer<FileEntry> sink) throws IOException {
+        Map<Path, FileEntry> children = new TreeMap<>();
+        if (Files.isDirectory(folder) && !isRemoved(folder)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder)) {
+                for (Path child : stream) {
+                    if (!isRemoved(child)) {
+                        children.put(child, new FileEntry(child, Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)));
+                    }
+                }
+            }
+        }
+        for (FileEntry entry : addedByFolder.getOrDefault(folder, List.of())) {
+            children.put(entry.getPath(), entry);
+        }
+
+        for (FileEntry child : children.values()) {
+            if (child.isDirectory() && walker.isExcluded(child.getPath())) {
+                continue;
+            }
+            boolean accepted = filter.test(child);
+            if (accepted) {
+                sink.accept(child);
+            }
+            if (child.isDirectory() && depth < walker.getMaxDepth() && !(accepted && walker.skipsAcceptedDirectories())) {
+                walkFolder(child.getPath(), depth + 1, walker, addedByFolder, filter, sink);
+            }
+        }
+    }
+
+    public void createFile(String instructionName, Path path, long bytes) {
+        Path key = path.toAbsolutePath().normalize();
+        added.put(key, new FileEntry(key, new SimulatedAttributes(false, bytes)));
+        removed.remove(key);
+        record(new PlannedOperation(instructionName, Operation.CREATE_FILE, null, key, bytes, false));
+    }
+
+    public void createFolder(String instructionName, Path path) {
+        Path key = path.toAbsolutePath().normalize();
+        added.put(key, new FileEntry(key, new SimulatedAttributes(true, 0)));
+        removed.remove(key);
+        record(new PlannedOperation(instructionName, Operation.CREATE_FOLDER, null, key, 0, false));
+    }
+
+    // A move on the same file store is a rename, across stores the content is copied
+    public File move(String instructionName, FileEntry entry, Path target, boolean sameFileStore) {
+        long size = sizeOf(entry);
+        Path destination = relocate(entry, target, true);
+        record(new PlannedOperation(instructionName, Operation.MOVE, entry.getPath(), destination, size, sameFileStore));
+        return destination.toFile();
+    }
+
+    public File copy(String instructionName, FileEntry entry, Path target) {
+        long size = sizeOf(entry);
+        Path destination = relocate(entry, target, false);
+        record(new PlannedOperation(instructionName, Operation.COPY, entry.getPath(), destination, size, false));
+        return destination.toFile();
+    }
+
+    public void rename(String instructionName, File source, File target) {
+        FileEntry entry = read(source.toPath());
+        if (entry == null) {
+            return;
+        }
+        Path destination = relocate(entry, target.toPath(), true);
+        record(new PlannedOperation(instructionName, Operation.RENAME, entry.getPath(), destination, 0, true));
+    }
+
+    public ArrayList<PlannedOperation> getOperations() {
+        synchronized (operations) {
+            return new ArrayList<>(operations);
+        }
+    }
+
+    // The planned operations grouped by the file store of their destination, in the order the stores are first used
+    public Map<FileStore, List<PlannedOperation>> groupByFileStore() throws IOException {
+        Map<Path, FileStore> storesOfFolders = new HashMap<>();
+        Map<FileStore, List<PlannedOperation>> grouped = new LinkedHashMap<>();
+        for (PlannedOperation operation : getOperations()) {
+            Path folder = operation.getDestination().toAbsolutePath().normalize().getParent();
+            FileStore store = storesOfFolders.get(folder);
+            if (store == null) {
+                store = Files.getFileStore(nearestExistingFolder(operation.getDestination()));
+                storesOfFolders.put(folder, store);
+            }
+            grouped.computeIfAbsent(store, k -> new ArrayList<>()).add(operation);
+        }
+        return grouped;
+    }
+
+    // The folder a destination is written to on disk: its nearest parent that exists, or itself if it is a folder
+    public static Path nearestExistingFolder(Path destination) {
+        Path folder = destination.toAbsolutePath().normalize();
+        while (folder.getParent() != null && !Files.isDirectory(folder)) {
+            folder = folder.getParent();
+        }
+        return folder;
+    }
+
+    // Totals of the plan, with the duration estimated from the measured throughput
+    public String describeTotals(Throughput throughput) {
+        return describeTotals(getOperations(), throughput);
+    }
+
+    // Totals of some of the planned operations, e.g. the ones on one file store
+    public static String describeTotals(List<PlannedOperation> operations, Throughput throughput) {
+        long files = 0;
+        long bytes = 0;
+        long metadataOperations = 0;
+        for (PlannedOperation operation : operations) {
+            files++;
+            bytes += operation.getBytes();
+            // a move across stores also deletes its source
+            metadataOperations += operation.getOperation() == Operation.MOVE && operation.getBytes() > 0 ? 2 : 1;
+        }
+        double seconds = throughput.estimateSeconds(metadataOperations, bytes);
+        return String.format("Planned %d operation(s), %d bytes written, estimated %.1f second(s)", files, bytes, seconds);
+    }
+
+    private void record(PlannedOperation operation) {
+        synchronized (operations) {
+            operations.add(operation);
+        }
+    }
+
+    // Moves or copies the simulated entry, with everything the plan added inside it, and returns where it ends up
+    private Path relocate(FileEntry entry, Path target, boolean removeSource) {
+        Path source = entry.getPath().toAbsolutePath().normalize();
+        Path destination = target.toAbsolutePath().normalize();
+        for (Path path : entry.isDirectory() ? new ArrayList<>(added.keySet()) : new ArrayList<Path>()) {
+            if (path.startsWith(source) && !path.equals(source)) {
+                FileEntry inside = removeSource ? added.remove(path) : added.get(path);
+                Path moved = destination.resolve(source.relativize(path).toString());
+                added.put(moved, new FileEntry(moved, inside.getAttributes()));
+            }
+        }
+        added.put(destination, new FileEntry(destination, entry.getAttributes()));
+        if (removeSource) {
+            added.remove(source);
+            removed.add(source);
+            removed.remove(destination);
+        }
+        return destination;
+    }
+
+    // Size of a file, or of everything in a folder
+    private long sizeOf(FileEntry entry) {
+        if (!entry.isDirectory()) {
+            return entry.getAttributes().size();
+        }
+        long size = 0;
+        Path folder = entry.getPath().toAbsolutePath().normalize();
+        for (Map.Entry<Path, FileEntry> inside : added.entrySet()) {
+            if (inside.getKey().startsWith(folder) && !inside.getValue().isDirectory()) {
+                size += inside.getValue().getAttributes().size();
+            }
+        }
+        if (Files.isDirectory(folder)) {
+            long[] onDisk = {0};
+            try {
+                Files.walkFileTree(folder, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        onDisk[0] += attributes.size();
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            size += onDisk[0];
+        }
+        return size;
+    }
+
+    /**
+     * Throughput of the disk measured before the plan is reported: the time of a metadata operation, e.g. a create
+     * or a rename, and the bytes copied per second.
+     */
+    public static class Throughput {
+        private static final int PROBE_FILES = 64;
+        private static final int PROBE_BYTES = 4 * 1024 * 1024;
+
+        private final double secondsPerOperation;
+        private final double bytesPerSecond;
+
+        public Throughput(double secondsPerOperation, double bytesPerSecond) {
+            this.secondsPerOperation = secondsPerOperation;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        // Creates, copies and deletes a few probe files in a new folder under the scratch folder
+        public static Throughput measure(Path scratchFolder) throws IOException {
+            Path probe = Files.createTempDirectory(scratchFolder, "simplefiles-probe");
+            try {
+                long start = System.nanoTime();
+                for (int i = 0; i < PROBE_FILES; i++) {
+                    Files.delete(Files.createFile(probe.resolve("probe_" + i)));
+                }
+                double secondsPerOperation = (System.nanoTime() - start) / 1e9 / (PROBE_FILES * 2);
+
+                Path source = Files.write(probe.resolve("source"), new byte[PROBE_BYTES]);
+                start = System.nanoTime();
+                new CopyBackend(CopyBackend.Strategy.TRANSFER).copy(FileEntry.read(source), probe.resolve("target"));
+                double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-6);
+                Files.delete(probe.resolve("target"));
+                Files.delete(source);
+                return new Throughput(secondsPerOperation, PROBE_BYTES / seconds);
+            } finally {
+                Files.deleteIfExists(probe);
+            }
+        }
+
+        public double estimateSeconds(long metadataOperations, long bytes) {
+            return metadataOperations * secondsPerOperation + bytes / bytesPerSecond;
+        }
+    }
+
+    // Attributes of an entry that only exists in the plan
+    private static class SimulatedAttributes implements BasicFileAttributes {
+        private final boolean directory;
+        private final long size;
+        private final FileTime time = FileTime.fromMillis(System.currentTimeMillis());
+
+        SimulatedAttributes(boolean directory, long size) {
+            this.directory = directory;
+            this.size = size;
+        }
+
+        @Override
+        public FileTime lastModifiedTime() {
+            return time;
+        }
+
+        @Override
+        public FileTime lastAccessTime() {
+            return time;
+        }
+
+        @Override
+        public FileTime creationTime() {
+            return time;
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return !directory;
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return directory;
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return false;
+        }
+
+        @Override
+        public boolean isOther() {
+            return false;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public Object fileKey() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package evaluator;
+
+/**
+ * Receives the events of an execution. Instructions report through this interface instead of printing, so the
+ * output can be filtered by verbosity, printed as NDJSON, or printed on another thread.
+ */
+public interface ExecutionReporter {
+    // Each level includes the levels before it. Errors are reported at every level.
+    enum Verbosity {
+        SUMMARY, INSTRUCTION, FILE
+    }
+
+    // Lets callers skip building an event that would not be reported
+    boolean isEnabled(Verbosity level);
+
+    void report(ExecutionEvent event);
+
+    // Waits until every reported event is written
+    void flush();
+
+    default void file(String instruction, String kind, String path, String message) {
+        if (isEnabled(Verbosity.FILE)) {
+            report(new ExecutionEvent(Verbosity.FILE, false, instruction, kind, path, message));
+        }
+    }
+
+    // Reported at every level, like every other error
+    default void fileError(String instruction, String kind, String path, String message) {
+        report(new ExecutionEvent(Verbosity.FILE, true, instruction, kind, path, message));
+    }
+
+    default void instruction(String instruction, String kind, String message) {
+        if (isEnabled(Verbosity.INSTRUCTION)) {
+            report(new ExecutionEvent(Verbosity.INSTRUCTION, false, instruction, kind, null, message));
+        }
+    }
+
+    default void error(String instruction, String message) {
+        report(new ExecutionEvent(Verbosity.SUMMARY, true, instruction, "error", null, message));
+    }
+
+    default void summary(String message) {
+        report(new ExecutionEvent(Verbosity.SUMMARY, false, null, "summary", null, message));
+    }
+
+    // Called after every execution of an instruction, nothing is printed for it
+    default void executed(InstructionResult result) {
+    }
+}
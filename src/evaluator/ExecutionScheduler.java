@@ -0,0 +1,193 @@
+package evaluator;
+
+import ast.Condition;
+import ast.Instruction;
+import ast.Parameter;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the EXEC statements of a program on several threads. Every execution waits for the earlier executions it
+ * depends on: the ones that run an instruction it names, e.g. as group_target or path, the ones that run the same
+ * instruction, and the ones whose folders overlap its own. Executions that share nothing run at the same time.
+ * An execution whose folders can not be resolved up front depends on everything before it. An execution whose
+ * dependency failed unexpectedly does not run, it reports why and fails with the same exception.
+ */
+public class ExecutionScheduler {
+    // Parameters that name a folder, or an instruction whose result is used as one
+    private static final Set<String> PATH_PARAMETERS = Set.of("path", "group_target", "template_path");
+
+    private final ExecutorService pool;
+    private final Memory memory;
+    private final ExecutionReporter reporter;
+    private final ArrayList<Execution> pending = new ArrayList<>();
+
+    // What an execution touches, known before it runs
+    private static class Execution {
+        private final String instructionName;
+        private final Set<String> instructionNames;
+        private final Set<Path> paths;
+        private final CompletableFuture<Void> done;
+
+        Execution(String instructionName, Set<String> instructionNames, Set<Path> paths, CompletableFuture<Void> done) {
+            this.instructionName = instructionName;
+            this.instructionNames = instructionNames;
+            this.paths = paths;
+            this.done = done;
+        }
+    }
+
+    public ExecutionScheduler(int parallelism, Memory memory, ExecutionReporter reporter) {
+        this.pool = Executors.newFixedThreadPool(parallelism, new WorkerFactory());
+        this.memory = memory;
+        this.reporter = reporter;
+    }
+
+    // Schedules the execution of an instruction, with the condition it is mapped to or null
+    public void submit(Instruction instruction, Condition condition, Set<String> definedInstructions, Runnable task) {
+        Set<String> instructionNames = new HashSet<>();
+        instructionNames.add(instruction.getName());
+        Set<Path> paths = new HashSet<>();
+        boolean known = addFootprint(instruction.getParameters(), definedInstructions, instructionNames, paths);
+        if (condition != null) {
+            known &= addFootprint(condition.getParameters(), definedInstructions, instructionNames, paths);
+        }
+        if (!hasParameter(instruction, condition, "path")) {
+            // creates in the working directory
+            paths.add(Paths.get("").toAbsolutePath());
+        }
+
+        ArrayList<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (Execution earlier : pending) {
+            if (!known || earlier.paths == null || sharesInstruction(earlier, instructionNames) || overlaps(earlier.paths, paths)) {
+                dependencies.add(earlier.done);
+                if (instructionNames.contains(earlier.instructionName)) {
+                    // a named result lives in the folders of the execution that produced it
+                    if (earlier.paths == null) {
+                        known = false;
+                    } else {
+                        paths.addAll(earlier.paths);
+                    }
+                }
+            }
+        }
+
+        String name = instruction.getName();
+        CompletableFuture<Void> done = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, failure) -> {
+                    if (failure != null) {
+                        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                        reporter.error(name, "Not executed, an execution it depends on failed: " + cause.getMessage());
+                    }
+                })
+                .thenRunAsync(task, pool);
+        pending.add(new Execution(instruction.getName(), instructionNames, known ? paths : null, done));
+    }
+
+    // Waits for every scheduled execution. Rethrows the first unexpected exception of an execution.
+    public void await() {
+        RuntimeException failure = null;
+        for (Execution execution : pending) {
+            try {
+                execution.done.join();
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+        }
+        pending.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // Adds the instructions and folders named by the parameters. Returns false if a value can not be resolved yet.
+    private boolean addFootprint(ArrayList<Parameter> parameters, Set<String> definedInstructions,
+                                 Set<String> instructionNames, Set<Path> paths) {
+        for (Parameter parameter : parameters) {
+            if (!PATH_PARAMETERS.contains(parameter.getKey())) {
+                continue;
+            }
+            String value;
+            try {
+                value = parameter.getValue(memory);
+                if (value == null) {
+                    return false;
+                }
+                paths.add(Paths.get(value).toAbsolutePath().normalize());
+            } catch (RuntimeException e) {
+                return false;
+            }
+            if (definedInstructions.contains(value) || memory.hasGroupedFilesFromInstruction(value)) {
+                instructionNames.add(value);
+                if (memory.hasGroupedFilesFromInstruction(value)) {
+                    paths.add(Paths.get(memory.getBasePath(value)).toAbsolutePath().normalize());
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasParameter(Instruction instruction, Condition condition, String key) {
+        for (Parameter parameter : instruction.getParameters()) {
+            if (parameter.getKey().equals(key)) {
+                return true;
+            }
+        }
+        if (condition != null) {
+            for (Parameter parameter : condition.getParameters()) {
+                if (parameter.getKey().equals(key)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean sharesInstruction(Execution earlier, Set<String> instructionNames) {
+        for (String name : earlier.instructionNames) {
+            if (instructionNames.contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // True if a folder of one set is, or is inside, a folder of the other
+    private static boolean overlaps(Set<Path> first, Set<Path> second) {
+        for (Path a : first) {
+            for (Path b : second) {
+                if (a.startsWith(b) || b.startsWith(a)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "simplefiles-exec-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A walked path together with the attributes read for it. Attributes are read once per entry and reused by the
+ * filters and the actions so a file is not stat'ed again for every check.
+ */
+public class FileEntry {
+    private final Path path;
+    private final BasicFileAttributes attributes;
+
+    public FileEntry(Path path, BasicFileAttributes attributes) {
+        this.path = path;
+        this.attributes = attributes;
+    }
+
+    // Reads the attributes of a path that was not handed over by a walk, returns null if the path does not exist
+    public static FileEntry read(Path path) throws SimpleFilesExecutionException {
+        try {
+            return new FileEntry(path, Files.readAttributes(path, BasicFileAttributes.class));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new SimpleFilesExecutionException(String.format("IOException occurred when trying to access file: %s.", path.toAbsolutePath()));
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public BasicFileAttributes getAttributes() {
+        return attributes;
+    }
+
+    public String getName() {
+        Path fileName = path.getFileName();
+        return fileName == null ? "" : fileName.toString();
+    }
+
+    public boolean isDirectory() {
+        return attributes.isDirectory();
+    }
+
+    public File toFile() {
+        return path.toFile();
+    }
+}
@@ -0,0 +1,66 @@
+package evaluator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The template_path file of a create instruction, loaded once and written to every created file.
+ * Small templates are read into a direct buffer that every write shares. Larger templates are not held in memory
+ * and are copied with the copy backend instead, which clones or lets the kernel copy them.
+ */
+public class FileTemplate {
+    static final long BUFFER_LIMIT = 8 * 1024 * 1024;
+
+    private final FileEntry entry;
+    private final ByteBuffer content;
+    private final CopyBackend copyBackend;
+
+    private FileTemplate(FileEntry entry, ByteBuffer content, CopyBackend copyBackend) {
+        this.entry = entry;
+        this.content = content;
+        this.copyBackend = copyBackend;
+    }
+
+    // Returns null if the template does not exist or is not a regular file
+    public static FileTemplate load(Path templatePath) throws IOException {
+        FileEntry entry = FileEntry.read(templatePath);
+        if (entry == null || !entry.getAttributes().isRegularFile()) {
+            return null;
+        }
+        if (entry.getAttributes().size() > BUFFER_LIMIT) {
+            return new FileTemplate(entry, null, new CopyBackend(CopyBackend.Strategy.TRANSFER));
+        }
+
+        ByteBuffer content;
+        try (FileChannel in = FileChannel.open(templatePath, StandardOpenOption.READ)) {
+            content = ByteBuffer.allocateDirect((int) in.size());
+            while (content.hasRemaining() && in.read(content) >= 0) {
+                // keep reading until the buffer is full
+            }
+        }
+        content.flip();
+        return new FileTemplate(entry, content, null);
+    }
+
+    // Writes the template over an existing, usually just created, file
+    public void writeTo(Path target) throws IOException {
+        if (content == null) {
+            copyBackend.copy(entry, target);
+            return;
+        }
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // every writer gets its own position and limit on the shared content
+            ByteBuffer view = content.duplicate();
+            while (view.hasRemaining()) {
+                out.write(view);
+            }
+        }
+    }
+
+    public long getSize() {
+        return entry.getAttributes().size();
+    }
+}
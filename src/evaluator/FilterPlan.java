@@ -0,0 +1,166 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Filter options of an instruction compiled into a flat chain of checks.
+ * Compiled once per instruction execution so that regex, dates and sizes are not re-parsed for every walked file.
+ */
+public class FilterPlan {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd-HH:mm", Locale.getDefault());
+    private static final Pattern RANGE_COMPARATOR = Pattern.compile("(?i)before|after|between");
+
+    // A single compiled filter. Checks only use the attribute snapshot of the entry, never the file system.
+    interface Check {
+        boolean test(FileEntry entry, String fileName);
+    }
+
+    private final Check[] checks;
+
+    private FilterPlan(Check[] checks) {
+        this.checks = checks;
+    }
+
+    public static FilterPlan compile(Map<String, String> filterOptions) throws SimpleFilesExecutionException {
+        ArrayList<Check> checks = new ArrayList<>();
+
+        if (filterOptions.containsKey("contains")) {
+            String contains = filterOptions.get("contains");
+            checks.add((entry, fileName) -> fileName.contains(contains));
+        }
+
+        if (filterOptions.containsKey("regex")) {
+            // Only the group count of the pattern is checked, which does not depend on the file name,
+            // so the outcome of this filter is known as soon as the pattern is compiled.
+            boolean hasGroups;
+            try {
+                hasGroups = Pattern.compile(filterOptions.get("regex")).matcher("").groupCount() >= 1;
+            } catch (PatternSyntaxException e) {
+                throw new SimpleFilesExecutionException("Invalid regex: " + e.getMessage());
+            }
+            checks.add((entry, fileName) -> hasGroups);
+        }
+
+        if (filterOptions.containsKey("extension")) {
+            String extension = filterOptions.get("extension");
+            checks.add((entry, fileName) -> fileName.substring(fileName.lastIndexOf(".") + 1).equals(extension));
+        }
+
+        if (filterOptions.containsKey("type")) {
+            String type = filterOptions.get("type");
+            if (Objects.equals(type, "folder")) {
+                checks.add((entry, fileName) -> entry.isDirectory());
+            } else if (Objects.equals(type, "file")) {
+                checks.add((entry, fileName) -> !entry.isDirectory());
+            }
+        }
+
+        if (filterOptions.containsKey("modified_date")) {
+            checks.add(compileModifiedDate(filterOptions.get("modified_date")));
+        }
+
+        if (filterOptions.containsKey("size") && !filterOptions.containsKey("comparator")) {
+            throw new SimpleFilesExecutionException("Size comparison missing comparator parameter.");
+        } else if (!filterOptions.containsKey("size") && filterOptions.containsKey("comparator")) {
+            throw new SimpleFilesExecutionException("Size comparison missing size parameter.");
+        } else if (filterOptions.containsKey("size") && filterOptions.containsKey("comparator")) {
+            Check sizeCheck = compileSize(filterOptions.get("size"), filterOptions.get("comparator"));
+            if (sizeCheck != null) {
+                checks.add(sizeCheck);
+            }
+        }
+
+        return new FilterPlan(checks.toArray(new Check[0]));
+    }
+
+    // Reads the attributes of the file once and tests them against the plan. A missing file never passes,
+    // callers that need to report it read the entry themselves.
+    public boolean test(File fileToTest) throws SimpleFilesExecutionException {
+        FileEntry entry = FileEntry.read(fileToTest.toPath());
+        return entry != null && test(entry);
+    }
+
+    public boolean test(FileEntry entry) {
+        String fileName = entry.getName();
+
+        for (Check check : checks) {
+            if (!check.test(entry, fileName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Check compileModifiedDate(String modifiedDate) {
+        String[] split = modifiedDate.split(" ");
+
+        if (split.length < 2 || split.length > 3) {
+            throw new SimpleFilesExecutionException("Cannot properly parse parameter arguments for modified_date");
+        }
+        String rangeComparator = split[0]; // The before, after, or between
+        if (!RANGE_COMPARATOR.matcher(rangeComparator).matches()) {
+            throw new SimpleFilesExecutionException("Unknown range comparator: " + rangeComparator);
+        }
+
+        // parse the dates once and keep them as instants so files can be compared without conversion
+        Instant firstDate;
+        Instant secondDate;
+        try {
+            firstDate = toInstant(LocalDateTime.parse(split[1], DATE_FORMATTER));
+            secondDate = split.length == 3 ? toInstant(LocalDateTime.parse(split[2], DATE_FORMATTER)) : null;
+        } catch (DateTimeParseException e) {
+            throw new SimpleFilesExecutionException("Error encountered when trying to parse the given date: " + e.getMessage());
+        }
+
+        if (rangeComparator.equalsIgnoreCase("BEFORE")) {
+            return (entry, fileName) -> !modifiedTime(entry).isAfter(firstDate);
+        } else if (rangeComparator.equalsIgnoreCase("AFTER")) {
+            return (entry, fileName) -> !modifiedTime(entry).isBefore(firstDate);
+        } else if (secondDate != null) {
+            return (entry, fileName) -> {
+                Instant fileModifiedTime = modifiedTime(entry);
+                return !fileModifiedTime.isBefore(firstDate) && !fileModifiedTime.isAfter(secondDate);
+            };
+        }
+        // between with a single date does not filter anything
+        return (entry, fileName) -> true;
+    }
+
+    private static Check compileSize(String size, String comparator) {
+        long threshold;
+        try {
+            threshold = Long.parseLong(size) * 1024; // input size is kb, must convert to bytes
+        } catch (NumberFormatException e) {
+            throw new SimpleFilesExecutionException("Specified size must be parsable integer.");
+        }
+
+        if (comparator.equals("GT")) {
+            return (entry, fileName) -> entry.getAttributes().size() >= threshold;
+        } else if (comparator.equals("LT")) {
+            return (entry, fileName) -> entry.getAttributes().size() <= threshold;
+        }
+        // not checking if comparator is valid
+        return null;
+    }
+
+    private static Instant modifiedTime(FileEntry entry) {
+        return entry.getAttributes().lastModifiedTime().toInstant();
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
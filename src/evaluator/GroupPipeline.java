@@ -0,0 +1,175 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded producer/consumer pipeline used by the group action. The scan submits matching entries while worker
+ * threads move or copy them, so transfers start before the scan is done and the number of pending entries never
+ * grows past the queue capacity. Results are returned in submission order whatever order the workers finish in.
+ * A failed transfer is captured per entry and does not stop the other transfers.
+ */
+public class GroupPipeline {
+    static final int DEFAULT_CAPACITY = 1024;
+    private static final int BATCH_SIZE = 64;
+
+    // Moves or copies a single entry. Returns the new file for the group result, or null if nothing was grouped.
+    public interface Transfer {
+        File apply(FileEntry entry) throws IOException;
+    }
+
+    // An entry that could not be transferred, with the reason reported by the transfer
+    public static class TransferFailure {
+        private final File file;
+        private final String reason;
+
+        TransferFailure(File file, String reason) {
+            this.file = file;
+            this.reason = reason;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+
+    // Marks the end of the submitted entries, one is queued for every worker
+    private static final Item END = new Item(-1, null);
+
+    private final BlockingQueue<Item> queue;
+    private final Transfer transfer;
+    private final Thread[] workers;
+    private final TreeMap<Long, File> results = new TreeMap<>();
+    private final TreeMap<Long, TransferFailure> failures = new TreeMap<>();
+
+    private long submitted = 0;
+    private volatile boolean aborted = false;
+
+    public GroupPipeline(int workerCount, int capacity, Transfer transfer) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.transfer = transfer;
+        this.workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Thread(this::work, "simplefiles-group-" + i);
+            workers[i].setDaemon(true);
+        }
+    }
+
+    public void start() {
+        for (Thread worker : workers) {
+            worker.start();
+        }
+    }
+
+    // Queues an entry for the workers, blocking while the queue is full
+    public void submit(FileEntry entry) {
+        try {
+            queue.put(new Item(submitted++, entry));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SimpleFilesExecutionException("Interrupted while grouping files.");
+        }
+    }
+
+    // Waits for the workers to drain the queue and returns the grouped files in submission order
+    public ArrayList<File> finish() {
+        try {
+            for (int i = 0; i < workers.length; i++) {
+                queue.put(END);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SimpleFilesExecutionException("Interrupted while grouping files.");
+        }
+
+        synchronized (results) {
+            return new ArrayList<>(results.values());
+        }
+    }
+
+    // Entries that failed to transfer, in submission order. Only complete once finish returned.
+    public ArrayList<TransferFailure> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures.values());
+        }
+    }
+
+    // Stops the workers without waiting for the queued entries, used when the scan itself failed
+    public void abort() {
+        aborted = true;
+        queue.clear();
+        for (int i = 0; i < workers.length; i++) {
+            queue.offer(END);
+        }
+    }
+
+    private void work() {
+        // A single worker takes whatever else is already queued, e.g. a run of renames, so it does not go back to
+        // the queue for every entry. With several workers that would leave the others idle next to a large batch.
+        int batchSize = workers.length == 1 ? BATCH_SIZE : 1;
+        ArrayList<Item> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+
+            boolean ended = false;
+            for (Item item : batch) {
+                if (item == END) {
+                    // end markers are queued after every entry, nothing can follow it
+                    ended = true;
+                    break;
+                } else if (!aborted) {
+                    // after an abort keep draining so the producer is never blocked, but stop transferring
+                    transfer(item);
+                }
+            }
+            batch.clear();
+            if (ended) {
+                return;
+            }
+        }
+    }
+
+    private void transfer(Item item) {
+        try {
+            File result = transfer.apply(item.entry);
+            if (result != null) {
+                synchronized (results) {
+                    results.put(item.sequence, result);
+                }
+            }
+        } catch (Exception e) {
+            String reason = e.getMessage() == null ? e.getClass().getSimpleName() : e.getClass().getSimpleName() + ": " + e.getMessage();
+            synchronized (failures) {
+                failures.put(item.sequence, new TransferFailure(item.entry.toFile(), reason));
+            }
+        }
+    }
+
+    private static class Item {
+        private final long sequence;
+        private final FileEntry entry;
+
+        Item(long sequence, FileEntry entry) {
+            this.sequence = sequence;
+            this.entry = entry;
+        }
+    }
+}
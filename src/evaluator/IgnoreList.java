@@ -1,27 +1,27 @@
 package evaluator;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class IgnoreList {
-    private static IgnoreList instance;
-    private Map<String, Set<String>> ignoreMap;
+    // Read by the threads of parallel executions while handlers may still be registered
+    private final Map<String, Set<String>> ignoreMap = new ConcurrentHashMap<>();
 
-    private IgnoreList() {
-        ignoreMap = new HashMap<>();
-    }
-
-    public static IgnoreList getInstance() {
-        if (instance == null) {
-            instance = new IgnoreList();
-        }
-        return instance;
-    }
+    // One per run, see ExecutionContext
+    IgnoreList() {}
 
     public void addToIgnoreList(String action, String... strings) {
-        Set<String> set = ignoreMap.computeIfAbsent(action, k -> new HashSet<>());
+        Set<String> set = ignoreMap.computeIfAbsent(action, k -> ConcurrentHashMap.newKeySet());
         set.addAll(Arrays.asList(strings));
     }
 
+    // Replaces the ignored parameters of the action
+    public void setIgnoreList(String action, Set<String> parameters) {
+        Set<String> set = ConcurrentHashMap.newKeySet();
+        set.addAll(parameters);
+        ignoreMap.put(action, set);
+    }
+
     public Set<String> getIgnoreList(String action) {
         return ignoreMap.getOrDefault(action, Collections.emptySet());
     }
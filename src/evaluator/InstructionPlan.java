@@ -0,0 +1,49 @@
+package evaluator;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The parameters of an instruction merged with the condition it is mapped to, with every variable resolved. Values
+ * parsed or compiled from the parameters, e.g. the count, the paths and the filter, are compiled the first time they
+ * are needed and kept with the plan, so executing the instruction again skips the parsing. Plans are cached by an
+ * InstructionPlanCache until a variable changes.
+ */
+public class InstructionPlan {
+    // Stands in for a compiled value that is null
+    private static final Object NONE = new Object();
+
+    private final Map<String, String> parameters;
+    private final long variableVersion;
+    private final int parameterCount;
+    private final Map<String, Object> compiled = new ConcurrentHashMap<>();
+
+    InstructionPlan(Map<String, String> parameters, long variableVersion, int parameterCount) {
+        this.parameters = Collections.unmodifiableMap(parameters);
+        this.variableVersion = variableVersion;
+        this.parameterCount = parameterCount;
+    }
+
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    // Compiles the value on first use. Nothing is kept when the compiler throws, so the error is thrown every time.
+    @SuppressWarnings("unchecked")
+    public <T> T compiled(String name, Supplier<T> compiler) {
+        Object value = compiled.get(name);
+        if (value == null) {
+            T result = compiler.get();
+            value = result == null ? NONE : result;
+            compiled.putIfAbsent(name, value);
+        }
+        return value == NONE ? null : (T) value;
+    }
+
+    // A plan is stale once a variable changed, or a parameter was added to the instruction or condition
+    boolean isValid(long variableVersion, int parameterCount) {
+        return this.variableVersion == variableVersion && this.parameterCount == parameterCount;
+    }
+}
@@ -0,0 +1,56 @@
+package evaluator;
+
+import ast.Condition;
+import ast.Instruction;
+import common.ActionType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The plans of the instructions, and of the instruction and condition pairs, an InstructionRunner executed. Plans are
+ * keyed by the instruction and condition objects, so redefining an instruction gives it a new plan.
+ */
+class InstructionPlanCache {
+    private static final class Key {
+        private final Instruction instruction;
+        private final Condition condition;
+        private final ActionType action;
+
+        Key(Instruction instruction, Condition condition, ActionType action) {
+            this.instruction = instruction;
+            this.condition = condition;
+            this.action = action;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && instruction == other.instruction && condition == other.condition && action == other.action;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(instruction) + System.identityHashCode(condition)) + action.hashCode();
+        }
+    }
+
+    private final Map<Key, InstructionPlan> plans = new ConcurrentHashMap<>();
+
+    // Returns the cached plan while the variables did not change, otherwise resolves the parameters into a new one
+    InstructionPlan get(Instruction instruction, Condition condition, ActionType action, Memory memory,
+                        Supplier<Map<String, String>> resolver) {
+        // read before resolving, a variable assigned meanwhile makes the plan stale instead of wrong
+        long version = memory.getVariableVersion();
+        int parameterCount = instruction.getParameters().size() + (condition == null ? 0 : condition.getParameters().size());
+        Key key = new Key(instruction, condition, action);
+
+        InstructionPlan plan = plans.get(key);
+        if (plan != null && plan.isValid(version, parameterCount)) {
+            return plan;
+        }
+        plan = new InstructionPlan(resolver.get(), version, parameterCount);
+        plans.put(key, plan);
+        return plan;
+    }
+}
@@ -0,0 +1,69 @@
+package evaluator;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * What one execution of an instruction did: whether it succeeded, the entries it created, grouped or renamed, the
+ * bytes it copied, how long it took and the errors it reported. Immutable so it can be handed to another thread.
+ */
+public class InstructionResult {
+    public enum Status {
+        SUCCEEDED, FAILED, RESUMED
+    }
+
+    private final String instruction;
+    private final String condition;
+    private final Status status;
+    private final long entries;
+    private final long bytes;
+    private final Duration duration;
+    private final List<String> errors;
+
+    public InstructionResult(String instruction, String condition, Status status, long entries, long bytes,
+                             Duration duration, List<String> errors) {
+        this.instruction = instruction;
+        this.condition = condition;
+        this.status = status;
+        this.entries = entries;
+        this.bytes = bytes;
+        this.duration = duration;
+        this.errors = List.copyOf(errors);
+    }
+
+    public String getInstruction() {
+        return instruction;
+    }
+
+    // Name of the condition the instruction was mapped to, null for EXEC_INST
+    public String getCondition() {
+        return condition;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    // Entries created, grouped or renamed, zero for a failed or resumed execution
+    public long getEntries() {
+        return entries;
+    }
+
+    // Bytes copied by a group copy, moves and renames write none
+    public long getBytes() {
+        return bytes;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    // Error messages reported while the instruction ran, the instruction can still succeed with files it skipped
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public InstructionResult withErrors(List<String> errors) {
+        return new InstructionResult(instruction, condition, status, entries, bytes, duration, errors);
+    }
+}
@@ -3,6 +3,7 @@ package evaluator;
 import ast.Condition;
 import ast.Instruction;
 import ast.Parameter;
+import common.ActionType;
 import errors.SimpleFilesExecutionException;
 import errors.UnknownVariableException;
 
@@ -14,84 +15,68 @@ import java.io.IOException;
 
 import java.nio.file.*;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-
-import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 public class InstructionRunner {
+    // Folder names can not contain a ., first ^ is start and $ is ending
+    private static final Pattern FOLDER_NAME = Pattern.compile("^[^.]+$");
+
     Memory memory;
     IgnoreList ignoreList;
-    InstructionRunner() {
-        memory = Memory.getInstance();
-        ignoreList = IgnoreList.getInstance();
-
-        // Initialization for ignore list on parameter against specified action
-        ignoreList.addToIgnoreList("create", "extension", "group_target", "mode", "type", "contains", "regex", "modified_date", "size");
-        ignoreList.addToIgnoreList("group", "template_path", "name", "name_file", "count");
-        ignoreList.addToIgnoreList("rename", "template_path", "name", "name_file", "count", "group_target");
-    }
+    ExecutionReporter reporter;
 
+    // Resolved parameters and compiled values of the executed instructions
+    private final InstructionPlanCache plans = new InstructionPlanCache();
 
+    // Set for a dry run, the operations are recorded in the plan instead of being done
+    private final ExecutionPlan plan;
 
-    public void runCreateInstruction(Instruction instruction, String creationType, Condition condition) throws SimpleFilesExecutionException {
-        Map<String, String> parameters;
-
-        ArrayList<File> filesCreatedByInstruction = new ArrayList<>();
+    // Set to record the completed operations, and skip the ones an interrupted run already did
+    private final OperationJournal journal;
 
+    // Set for incremental runs, copies whose source and destination did not change since the last run are skipped
+    private final CopyManifest manifest;
 
-        // setup default for required parameters
-        String fileName = null;
-        int count = 1;
-        Path path = Paths.get("").toAbsolutePath();
+    // Entries and bytes of the current execution of every instruction, an instruction runs one execution at a time
+    private final Map<String, long[]> totals = new ConcurrentHashMap<>();
 
+    // Runs the instructions with the memory and ignore list of the context
+    InstructionRunner(ExecutionReporter reporter, ExecutionContext context) {
+        this.reporter = reporter;
+        this.plan = context.getPlan();
+        this.journal = context.getJournal();
+        this.manifest = context.getManifest();
+        memory = context.getMemory();
+        ignoreList = context.getIgnoreList();
 
-        // optional param for create file
-        Path templatePath = null;
-
-        // merge with condition parameters if provided, or convert parameters to a map
-        if (condition != null){
-            parameters = mergeParameters("create", instruction.getParameters(), condition.getParameters());
-        } else {
-            parameters = makeParameterMap(instruction.getParameters());
-        }
+        // Initialization for ignore list on parameter against specified action, declared by the built-in action handlers
+        ActionHandlerRegistry.defaults().declareIgnoredParameters(ignoreList);
+    }
 
 
-        // extracting parameters
-        if (parameters.containsKey("name")){
-            fileName = parameters.get("name");
-        }
 
-        if (parameters.containsKey("path")){
-            path = Paths.get(parameters.get("path")).toAbsolutePath();
-        }
+    public void runCreateInstruction(Instruction instruction, String creationType, Condition condition) throws SimpleFilesExecutionException {
+        ArrayList<File> filesCreatedByInstruction = new ArrayList<>();
 
-        if (parameters.containsKey("count")){
-            try {
-                count = Integer.parseInt(parameters.get("count"));
-            } catch (NumberFormatException e){
-                String msg = String.format(
-                        "Error encountered running instruction: %s. Invalid format for Count: %s.",
-                        instruction.getName(), parameters.get("count"));
-                throw new SimpleFilesExecutionException(msg);
-            }
+        // merge with condition parameters if provided, the plan is reused until a variable changes
+        InstructionPlan instructionPlan = planFor(instruction, condition,
+                "file".equals(creationType) ? ActionType.CREATE_FILE : ActionType.CREATE_FOLDER);
+        Map<String, String> parameters = instructionPlan.getParameters();
 
-            if (count < 1){
-                String msg = String.format(
-                        "Error encountered running instruction: %s. Count can not be less than 1: %s.",
-                        instruction.getName(), parameters.get("count"));
-                throw new SimpleFilesExecutionException(msg);
-            }
-        }
+        // extracting parameters, path defaults to the working directory and count to 1
+        String fileName = parameters.get("name");
+        Path path = instructionPlan.compiled("path", () -> parameters.containsKey("path")
+                ? Paths.get(parameters.get("path")).toAbsolutePath() : Paths.get("").toAbsolutePath());
+        int count = instructionPlan.compiled("count", () -> parseCount(instruction, parameters));
 
-        if (parameters.containsKey("template_path")){
-            templatePath = Paths.get(parameters.get("template_path")).toAbsolutePath();
-        }
+        // optional param for create file
+        Path templatePath = instructionPlan.compiled("template_path", () -> parameters.containsKey("template_path")
+                ? Paths.get(parameters.get("template_path")).toAbsolutePath() : null);
 
 
         // null check for name just in case
@@ -101,22 +86,27 @@ public class InstructionRunner {
             throw new SimpleFilesExecutionException(msg);
         }
 
-        ArrayList<String> names;
-
-        // Create list of name from dynamic construct
-        try {
-            names = getNameList(fileName, count);
-        } catch (SimpleFilesExecutionException e) {
-            String msg = String.format("Error encountered running instruction: %s. %s",
-                    instruction.getName(), e.getMessage());
-            throw new SimpleFilesExecutionException(msg);
-        }
-
-
-        if (names.isEmpty()){
-            String msg = String.format("Error encountered running instruction: %s. Error resolving dynamic construct",
-                    instruction.getName());
-            throw new SimpleFilesExecutionException(msg);
+        // Compile the name, the names of the dynamic construct are rendered while creating.
+        // A date is rendered when the name is compiled, so names with a date are compiled for every execution.
+        Supplier<NameTemplate> nameCompiler = () -> {
+            try {
+                return NameTemplate.compile(fileName, count, memory);
+            } catch (SimpleFilesExecutionException e) {
+                String msg = String.format("Error encountered running instruction: %s. %s",
+                        instruction.getName(), e.getMessage());
+                throw new SimpleFilesExecutionException(msg);
+            }
+        };
+        NameTemplate names = fileName.contains("${DATE") ? nameCompiler.get() : instructionPlan.compiled("names", nameCompiler);
+
+        if (plan != null) {
+            planCreate(instruction, creationType, names, path, templatePath, filesCreatedByInstruction);
+            reporter.instruction(instruction.getName(), "planned", String.format("Instruction %s would create %d %s(s) at %s",
+                    instruction.getName(), filesCreatedByInstruction.size(), creationType, path));
+            count(instruction.getName(), filesCreatedByInstruction.size(), 0);
+            memory.storeGroupResult(instruction.getName(), filesCreatedByInstruction);
+            memory.storeBasePath(instruction.getName(), path.toString());
+            return;
         }
 
         // Create necessary folder along the file path
@@ -131,27 +121,75 @@ public class InstructionRunner {
             throw new SimpleFilesExecutionException(msg);
         }
 
-        // Do create action on each name constructed
-        for (String n: names){
+        // Templates are loaded once and written to every file
+        FileTemplate template = null;
+        if (templatePath != null && "file".equals(creationType)) {
+            try {
+                template = FileTemplate.load(templatePath);
+            } catch (IOException e) {
+                String msg = String.format("Error encountered running instruction: %s. Unable to read template: %s",
+                        instruction.getName(), templatePath);
+                throw new SimpleFilesExecutionException(msg);
+            }
+            if (template == null) {
+                String msg = String.format("Error encountered running instruction: %s. Template must be an existing file: %s",
+                        instruction.getName(), templatePath);
+                throw new SimpleFilesExecutionException(msg);
+            }
+        }
+
+        // Large counts are split over io_threads workers
+        int workers = getIoThreads(instruction, instructionPlan);
+        if (workers > 1 || template != null) {
+            if (!"file".equals(creationType)) {
+                // check the names before anything is created. Only the fixed parts of a name can hold a restricted
+                // symbol, so the first name fails if any of them does.
+                if (!folderNameCheck(names.render(0))) {
+                    String msg = String.format(
+                            "Error encountered running instruction: %s. Found restricted symbol in specified folder name: %s",
+                            instruction.getName(), names.render(0));
+                    throw new SimpleFilesExecutionException(msg);
+                }
+            }
+            filesCreatedByInstruction = new BulkCreator(instruction.getName(), creationType, path, reporter, template, journal).create(names, workers);
+        } else {
+            createSerially(instruction, creationType, names, filePath, filesCreatedByInstruction);
+        }
+
+        reporter.instruction(instruction.getName(), "created", String.format("Instruction %s created %d %s(s) at %s",
+                instruction.getName(), filesCreatedByInstruction.size(), creationType, path));
+        count(instruction.getName(), filesCreatedByInstruction.size(), 0);
+        memory.storeGroupResult(instruction.getName(), filesCreatedByInstruction);
+        memory.storeBasePath(instruction.getName(), path.toString());
+    }
+
+    // Creates the files or folders one by one on the calling thread, adding the created ones to the list
+    private void createSerially(Instruction instruction, String creationType, NameTemplate names, File filePath,
+                                ArrayList<File> filesCreatedByInstruction) throws SimpleFilesExecutionException {
+        NameTemplate.Renderer renderer = names.renderer();
+        for (int i = 0; i < names.size(); i++){
+            String n = renderer.render(i);
             File newFile = new File(filePath, n);
+            ExecutionPlan.Operation operation = "file".equals(creationType) ? ExecutionPlan.Operation.CREATE_FILE : ExecutionPlan.Operation.CREATE_FOLDER;
+
+            // created by the interrupted run this one resumes
+            if (journal != null && journal.getCompletedTarget(instruction.getName(), operation, newFile.toPath()) != null && newFile.exists()) {
+                filesCreatedByInstruction.add(newFile);
+                continue;
+            }
 
             // file creation
             if ("file".equals(creationType)) {
                 try {
-                    // First filePath is not actually
-
-                    if (templatePath != null){
-                        Files.copy(templatePath, path);
-                        System.out.println("File created using template: " + n + " at " + path);
-                    } else {
-                        if (newFile.createNewFile()) {
-                            filesCreatedByInstruction.add(newFile);
-                            System.out.println("File created: " + n + " at " + newFile.getAbsolutePath());
-                        } else {
-                            System.out.println("Failed to create file: " + n + " at " + newFile.getAbsolutePath());
+                    if (newFile.createNewFile()) {
+                        filesCreatedByInstruction.add(newFile);
+                        if (journal != null) {
+                            journal.record(instruction.getName(), operation, null, newFile.toPath());
                         }
+                        reporter.file(instruction.getName(), "created", newFile.getAbsolutePath(), "File created: " + n + " at " + newFile.getAbsolutePath());
+                    } else {
+                        reporter.file(instruction.getName(), "create_failed", newFile.getAbsolutePath(), "Failed to create file: " + n + " at " + newFile.getAbsolutePath());
                     }
-
                 } catch (UnsupportedOperationException e) {
                     String msg = String.format(
                             "Error encountered running instruction: %s. During %s file creation, unsupportedOperationException caught",
@@ -182,10 +220,13 @@ public class InstructionRunner {
             // folder creation
                 if (folderNameCheck(n)){
                     if (!newFile.mkdirs()) {
-                        System.err.println("Failed to create folder: " + n + " at " + newFile.getAbsolutePath());
+                        reporter.fileError(instruction.getName(), "create_failed", newFile.getAbsolutePath(), "Failed to create folder: " + n + " at " + newFile.getAbsolutePath());
                     } else {
                         filesCreatedByInstruction.add(newFile);
-                        System.out.println("Folder created: " + n + " at " + newFile.getAbsolutePath());
+                        if (journal != null) {
+                            journal.record(instruction.getName(), operation, null, newFile.toPath());
+                        }
+                        reporter.file(instruction.getName(), "created", newFile.getAbsolutePath(), "Folder created: " + n + " at " + newFile.getAbsolutePath());
                     }
 
 
@@ -198,18 +239,88 @@ public class InstructionRunner {
 
             }
         }
-        memory.fileGroups.put(instruction.getName(),filesCreatedByInstruction);
-        memory.basePaths.put(instruction.getName(), path.toString());
     }
 
 
 
+    private static int parseCount(Instruction instruction, Map<String, String> parameters) throws SimpleFilesExecutionException {
+        if (!parameters.containsKey("count")) {
+            return 1;
+        }
+        int count;
+        try {
+            count = Integer.parseInt(parameters.get("count"));
+        } catch (NumberFormatException e){
+            String msg = String.format(
+                    "Error encountered running instruction: %s. Invalid format for Count: %s.",
+                    instruction.getName(), parameters.get("count"));
+            throw new SimpleFilesExecutionException(msg);
+        }
+
+        if (count < 1){
+            String msg = String.format(
+                    "Error encountered running instruction: %s. Count can not be less than 1: %s.",
+                    instruction.getName(), parameters.get("count"));
+            throw new SimpleFilesExecutionException(msg);
+        }
+        return count;
+    }
+
+    // Records the creates of a dry run in the plan, names that already exist fail like they would in a real run
+    private void planCreate(Instruction instruction, String creationType, NameTemplate names, Path path, Path templatePath,
+                            ArrayList<File> filesCreatedByInstruction) throws SimpleFilesExecutionException {
+        if (plan.exists(path) && !plan.isDirectory(path)) {
+            String msg = String.format("Error encountered running instruction: %s. File path does not exist",
+                    instruction.getName());
+            throw new SimpleFilesExecutionException(msg);
+        }
+        if (!plan.exists(path)) {
+            plan.createFolder(instruction.getName(), path);
+        }
+
+        long bytes = 0;
+        if (templatePath != null && "file".equals(creationType)) {
+            if (!Files.isRegularFile(templatePath)) {
+                String msg = String.format("Error encountered running instruction: %s. Template must be an existing file: %s",
+                        instruction.getName(), templatePath);
+                throw new SimpleFilesExecutionException(msg);
+            }
+            try {
+                bytes = Files.size(templatePath);
+            } catch (IOException e) {
+                String msg = String.format("Error encountered running instruction: %s. Unable to read template: %s",
+                        instruction.getName(), templatePath);
+                throw new SimpleFilesExecutionException(msg);
+            }
+        }
+
+        NameTemplate.Renderer renderer = names.renderer();
+        for (int i = 0; i < names.size(); i++) {
+            String n = renderer.render(i);
+            Path newPath = path.resolve(n);
+            if (!"file".equals(creationType) && !folderNameCheck(n)) {
+                String msg = String.format(
+                        "Error encountered running instruction: %s. Found restricted symbol in specified folder name: %s",
+                        instruction.getName(), n);
+                throw new SimpleFilesExecutionException(msg);
+            }
+            if (plan.exists(newPath)) {
+                reporter.fileError(instruction.getName(), "create_failed", newPath.toString(), "Would fail to create " + creationType + ": " + n + " at " + newPath);
+                continue;
+            }
+            if ("file".equals(creationType)) {
+                plan.createFile(instruction.getName(), newPath, bytes);
+            } else {
+                plan.createFolder(instruction.getName(), newPath);
+            }
+            filesCreatedByInstruction.add(newPath.toFile());
+        }
+    }
+
     public void runRenameInstruction(Instruction instruction, Condition condition) throws Exception {
 
 
         // Initialize necessary data structures
-        HashMap<String, String> filterOptions = new HashMap<>();
-
         Map<String, String> parameters;
 
         // Set initial mandatory parameters to null
@@ -217,14 +328,10 @@ public class InstructionRunner {
         String mode = null;
         boolean recursive = true;
         String pathName = "";
-        String type;
 
-        // merge with condition parameters if provided, or convert parameters to a map
-        if (condition != null){
-            parameters = mergeParameters("rename", instruction.getParameters(), condition.getParameters());
-        } else {
-            parameters = makeParameterMap(instruction.getParameters());
-        }
+        // merge with condition parameters if provided, the plan is reused until a variable changes
+        InstructionPlan instructionPlan = planFor(instruction, condition, ActionType.RENAME);
+        parameters = instructionPlan.getParameters();
 
         // extracting parameters
         if (parameters.containsKey("path")){
@@ -243,13 +350,13 @@ public class InstructionRunner {
                         instruction.getName());
                 throw new SimpleFilesExecutionException(msg);
             }
-            if (!targetPath.exists()) {
+            if (!(plan == null ? targetPath.exists() : plan.exists(targetPath.toPath()))) {
                 String msg = String.format(
                         "Error encountered running instruction: %s. Are you sure the specified path exists?",
                         instruction.getName());
                 throw new SimpleFilesExecutionException(msg);
             }
-            if (!targetPath.isDirectory()) {
+            if (!(plan == null ? targetPath.isDirectory() : plan.isDirectory(targetPath.toPath()))) {
                 String msg = String.format(
                         "Error encountered running instruction: %s. Path must be a valid folder!",
                         instruction.getName());
@@ -260,35 +367,28 @@ public class InstructionRunner {
 
         if (parameters.containsKey("mode")){
             mode = parameters.get("mode");
-
-            // default to lower case when mode is declared in condition but for group action
-            if (!Objects.equals(parameters.get("mode"), "upper_case") && !Objects.equals(parameters.get("mode"), "lower_case")) {
-                mode = "lower_case";
-            }
         }
 
         if (parameters.containsKey("recursive")){
-            recursive = Boolean.parseBoolean(parameters.get("recursive"));
+            recursive = instructionPlan.compiled("recursive", () -> Boolean.parseBoolean(parameters.get("recursive")));
         }
 
-        // initialize for filter parameters
-        for (String key: parameters.keySet()){
-            if (!Objects.equals(key, "mode") && !Objects.equals(key, "path") && !Objects.equals(key, "recursive")) {
-                if (parameters.get(key) == null) {
+        // initialize for filter parameters, compiled once per plan
+        FilterPlan filterPlan = instructionPlan.compiled("filter", () -> {
+            HashMap<String, String> filterOptions = new HashMap<>();
+            for (String key: parameters.keySet()){
+                if (!Objects.equals(key, "path") && !Objects.equals(key, "recursive") && !RenameTransform.isTransformParameter(key) && !isExecutionParameter(key)) {
+                    if (parameters.get(key) == null) {
 
-                    String msg = String.format("Parameter value for %s is null. Double check variables are assigned before use.", key);
+                        String msg = String.format("Parameter value for %s is null. Double check variables are assigned before use.", key);
 
-                    throw new SimpleFilesExecutionException(msg);
+                        throw new SimpleFilesExecutionException(msg);
+                    }
+                    filterOptions.put(key, parameters.get(key));
                 }
-                filterOptions.put(key, parameters.get(key));
             }
-        }
-
-        if (parameters.containsKey("type")) {
-            type = parameters.get("type");
-        } else {
-            type = "";
-        }
+            return FilterPlan.compile(filterOptions);
+        });
 
         // Null check just in case. Missing params should be caught in static check
         if (targetPath == null || mode == null) {
@@ -298,108 +398,119 @@ public class InstructionRunner {
             throw new SimpleFilesExecutionException(msg);
         }
 
-        // Grab all the files in the folder that satisfy the specified conditions.
-        ArrayList<File> filteredList = new ArrayList<>();
+        // Grab all the files in the folder that satisfy the specified conditions, with the attributes read for them.
+        ArrayList<FileEntry> filteredList = new ArrayList<>();
 
-        ArrayList<File> filesInDirectory;
-        if (recursive) {
-            filesInDirectory = new ArrayList<>();
-            // Walk the directory and get all files that satisfies the filter
-            Files.walk(targetPath.toPath()).forEach(walkedPath -> {
-                if (type.equals("file") && walkedPath.toFile().isFile()){
-                    filesInDirectory.add(new File(String.valueOf(walkedPath)));
-                } else if (type.equals("folder") && walkedPath.toFile().isDirectory()) {
-                    filesInDirectory.add(new File(String.valueOf(walkedPath)));
-                } else {
-                    // default to rename both folder and file
-                    filesInDirectory.add(new File(String.valueOf(walkedPath)));
+        if (plan != null && memory.hasGroupedFilesFromInstruction(pathName)) {
+            // the result of an earlier instruction may only exist in the plan, so a dry run renames its planned entries
+            for (File file : memory.getGroupedFiles(pathName)) {
+                FileEntry entry = plan.read(file.toPath());
+                if (entry != null && filterPlan.test(entry)) {
+                    filteredList.add(entry);
                 }
-
-            });
+            }
+        } else if (!recursive && memory.hasGroupedFilesFromInstruction(pathName)) {
+            for (File file : memory.getGroupedFiles(pathName)) {
+                FileEntry entry = FileEntry.read(file.toPath());
+                if (entry == null) {
+                    reporter.fileError(instruction.getName(), "missing", file.getAbsolutePath(),
+                            String.format("A specified file does not exist: %s. Might have been moved or deleted. Ignoring.", file.getAbsolutePath()));
+                } else if (filterPlan.test(entry)) {
+                    filteredList.add(entry);
+                }
+            }
         } else {
-            if (memory.hasGroupedFilesFromInstruction(pathName)) {
-                filesInDirectory = (memory.getGroupedFiles(pathName));
-            } else if (targetPath.listFiles() == null) {
-                filesInDirectory = null;
-            } else {
-                filesInDirectory = new ArrayList<>();
-                Collections.addAll(filesInDirectory, targetPath.listFiles());
+            // Walk the directory, the attributes read by the walk are reused by the filter.
+            // Recursive walks include the target folder itself, otherwise only its direct children are renamed.
+            // A dry run walks the folder as the earlier planned operations left it.
+            boolean includeRoot = recursive;
+            TreeWalker walker = instructionPlan.compiled("walker",
+                    () -> makeTreeWalker(instruction, parameters, includeRoot, includeRoot ? Integer.MAX_VALUE : 1));
+            try {
+                if (plan != null) {
+                    plan.walk(targetPath.toPath(), walker, filterPlan::test, filteredList::add);
+                } else {
+                    filteredList.addAll(makeTreeScanner(instruction, parameters, walker).collect(targetPath.toPath(), filterPlan::test));
+                }
+            } catch (IOException e) {
+                throw walkFailure(instruction, targetPath.toPath(), e);
             }
-
         }
 
-        if (filesInDirectory == null) {
-            // no files in the directly, just return without doing anything
-            return;
+        // Entries the interrupted run this one resumes already renamed keep their new name
+        if (journal != null) {
+            filteredList.removeIf(entry -> journal.isRenamed(instruction.getName(), entry.getPath()));
         }
 
-        for (File file: filesInDirectory) {
-            if (isSatisfiedByOptions(file, filterOptions)) {
-                filteredList.add(file);
-            }
+        // Plan all renames first, then rename the deepest entries first so a renamed folder never moves a pending entry
+        RenameTransform transform = instructionPlan.compiled("transform", () -> RenameTransform.compile(instruction.getName(), parameters));
+        ArrayList<File> files = new ArrayList<>(filteredList.size());
+        for (FileEntry entry : filteredList) {
+            files.add(entry.toFile());
         }
-        // Do the renaming
-        for (File oldFile: filteredList) {
-            String oldFileNameNoExt = getFileNameWithoutExtension(oldFile);
-            String oldFileExt = getFileExtension(oldFile);
-
-            // New file in the same directory as the old file
-            String parentDir = oldFile.getAbsoluteFile().getParent();
-            String newFileName = mode.equals("upper_case") ? oldFileNameNoExt.toUpperCase() : oldFileNameNoExt.toLowerCase();
-            File newFile = new File(parentDir, newFileName+oldFileExt);
-
-            // Check if was successfully renamed
-            boolean success = oldFile.renameTo(newFile);
-            if (!success) {
-                throw new SimpleFilesExecutionException("Failed to rename file: " + oldFile.getAbsolutePath());
+        RenamePlan renamePlan = RenamePlan.build(files, transform.forFiles(filteredList));
+        if (plan != null) {
+            for (RenamePlan.Rename rename : renamePlan.getRenames()) {
+                plan.rename(instruction.getName(), rename.getSource(), rename.getTarget());
             }
+            renamePlan.throwFailures(instruction.getName());
+            reporter.instruction(instruction.getName(), "planned", String.format("Instruction %s would rename %d file(s)",
+                    instruction.getName(), renamePlan.getRenames().size()));
+            count(instruction.getName(), renamePlan.getRenames().size(), 0);
+            return;
         }
+        renamePlan.apply(getIoThreads(instruction, instructionPlan), rename -> {
+            if (journal != null) {
+                journal.record(instruction.getName(), ExecutionPlan.Operation.RENAME, rename.getSource().toPath(), rename.getTarget().toPath());
+            }
+            reporter.file(instruction.getName(), "renamed",
+                    rename.getTarget().getAbsolutePath(), "File renamed: " + rename.getSource().getName() + " to " + rename.getTarget().getName());
+        });
+        renamePlan.throwFailures(instruction.getName());
+
+        reporter.instruction(instruction.getName(), "renamed", String.format("Instruction %s renamed %d file(s)",
+                instruction.getName(), renamePlan.getRenamedCount()));
+        count(instruction.getName(), renamePlan.getRenamedCount(), 0);
     }
 
     public void runGroupAction(Instruction instruction, Condition condition) throws Exception {
         // Initialize necessary data structures
         String instructionName = instruction.getName();
-        HashMap<String, String> filterOptions = new HashMap<>();
         Map<String, String> parameters;
 
 
         // Set initial mandatory parameters to null
-        final ArrayList<File> groupTarget = new ArrayList<>();
+        ArrayList<File> previousGroup = null;
+        Path groupTargetPath = null;
+        String groupTargetString = null;
         String basePath;
 
 
-        // merge with condition parameters if provided, or convert parameters to a map
-        if (condition != null){
-            parameters = mergeParameters("group", instruction.getParameters(), condition.getParameters());
-        } else {
-            parameters = makeParameterMap(instruction.getParameters());
-        }
+        // merge with condition parameters if provided, the plan is reused until a variable changes
+        InstructionPlan instructionPlan = planFor(instruction, condition, ActionType.GROUP);
+        parameters = instructionPlan.getParameters();
 
-        // Set filter parameters first
-        for (String key : parameters.keySet()) {
-            if (!key.equals("group_target") && !key.equals("path") && !key.equals("mode")) {
+        // Set filter parameters first, compiled once per plan
+        FilterPlan filterPlan = instructionPlan.compiled("filter", () -> {
+            HashMap<String, String> filterOptions = new HashMap<>();
+            for (String key : parameters.keySet()) {
+                if (!key.equals("group_target") && !key.equals("path") && !key.equals("mode") && !isExecutionParameter(key)) {
 
-                if (parameters.get(key) == null) {
-                    String msg = String.format("Parameter value for %s is null. Double check variables are assigned before use.", parameters.get(key));
-                    throw new SimpleFilesExecutionException(msg);
+                    if (parameters.get(key) == null) {
+                        String msg = String.format("Parameter value for %s is null. Double check variables are assigned before use.", parameters.get(key));
+                        throw new SimpleFilesExecutionException(msg);
+                    }
+                    filterOptions.put(key, parameters.get(key));
                 }
-                filterOptions.put(key, parameters.get(key));
             }
-        }
+            return FilterPlan.compile(filterOptions);
+        });
 
         // Get the group target
         if (memory.hasGroupedFilesFromInstruction(instructionName)) {
-            ArrayList<File> tempGroupTarget = memory.getGroupedFiles(instructionName);
+            previousGroup = memory.getGroupedFiles(instructionName);
             basePath = memory.getBasePath(instructionName);
-
-            // iterate over all files in the group target for the ones that satisfy the filter
-            for (File file : tempGroupTarget) {
-                if (isSatisfiedByOptions(file, filterOptions)) {
-                    groupTarget.add(file);
-                }
-            }
         } else {
-            String groupTargetString;
             // Group target exists in the parameters. Get path to it.
             if (parameters.containsKey("group_target")){
                 groupTargetString = parameters.get("group_target");
@@ -410,7 +521,6 @@ public class InstructionRunner {
                 throw new SimpleFilesExecutionException(msg);
             }
 
-            Path groupTargetPath;
             try {
                 if (memory.hasGroupedFilesFromInstruction(groupTargetString)){
                     groupTargetPath = Path.of(memory.getBasePath(groupTargetString));
@@ -427,29 +537,17 @@ public class InstructionRunner {
             basePath = groupTargetPath.toAbsolutePath().toString();
 
 
-            if (!Files.isDirectory(groupTargetPath)) {
+            if (plan != null && memory.hasGroupedFilesFromInstruction(groupTargetString)) {
+                // a dry run does not walk the result of an earlier instruction, which may only exist in the plan
+                previousGroup = memory.getGroupedFiles(groupTargetString);
+            }
+
+            if (!(plan == null ? Files.isDirectory(groupTargetPath) : plan.isDirectory(groupTargetPath))) {
                 String msg = String.format(
                         "Error encountered running instruction: %s. Group target must be a directory.",
                         instruction.getName());
                 throw new SimpleFilesExecutionException(msg);
             }
-
-            // Walk the directory and get all files that satisfies the filter
-            Files.walk(groupTargetPath).forEach(walkedPath -> {
-                if (!walkedPath.equals(groupTargetPath) && isSatisfiedByOptions(walkedPath, filterOptions)) {
-                    if (memory.hasGroupedFilesFromInstruction(groupTargetString)){
-                        ArrayList<File>filesCreateByInstruction = memory.getGroupedFiles(groupTargetString);
-                        for (File file : filesCreateByInstruction) {
-                            if (file.getAbsolutePath().equals(walkedPath.toString())) {
-                                groupTarget.add(new File(String.valueOf(walkedPath)));
-                            }
-                        }
-                    }
-                    else {
-                    groupTarget.add(new File(String.valueOf(walkedPath)));
-                    }
-                }
-            });
         }
 
         // Set up the output directory
@@ -465,19 +563,17 @@ public class InstructionRunner {
             throw new SimpleFilesExecutionException(msg);
         }
 
-        try {
-            outputPath = Paths.get(outputPathString).toAbsolutePath();
-        } catch (Exception e) {
-            String msg = String.format(
-                    "Error encountered running instruction: %s. Unable to resolve path at runtime.",
-                    instruction.getName());
-            throw new SimpleFilesExecutionException(msg);
-        }
-
-        Files.createDirectories(outputPath);
+        outputPath = instructionPlan.compiled("output_path", () -> {
+            try {
+                return Paths.get(outputPathString).toAbsolutePath();
+            } catch (Exception e) {
+                String msg = String.format(
+                        "Error encountered running instruction: %s. Unable to resolve path at runtime.",
+                        instruction.getName());
+                throw new SimpleFilesExecutionException(msg);
+            }
+        });
 
-        // Move/Copy all files
-        ArrayList<File> groupedFilesResult = new ArrayList<>();
         String mode;
         if (parameters.containsKey("mode")){
             mode = parameters.get("mode");
@@ -493,282 +589,396 @@ public class InstructionRunner {
             throw new SimpleFilesExecutionException(msg);
         }
 
-        String originalPath = "";
+        if (plan == null) {
+            Files.createDirectories(outputPath);
+        } else if (!plan.isDirectory(outputPath)) {
+            plan.createFolder(instructionName, outputPath);
+        }
+
+        // Parent folders in the output tree are created once per instruction, not once per file
+        DestinationDirectories destinations = new DestinationDirectories(outputPath);
 
+        // Move/Copy all files while the target is still being scanned
+        CopyBackend copyBackend = null;
+        MoveBackend moveBackend = null;
+        GroupPipeline.Transfer transfer;
+        int workers;
+        AtomicInteger unchanged = new AtomicInteger();
         if (mode.equals("move")) {
-            for (File file : groupTarget) {
-                if (file.exists()) {
-                    originalPath = file.getAbsolutePath();
-                    File moveFile;
-//                    if (memory.hasGroupedFilesFromInstruction(basePath)){
-//                        moveFile = new File(outputPathString, file.getName().replace(basePath,""));
-//                    } else {
-//                        moveFile = new File(outputPathString, file.getAbsolutePath().replace(basePath,""));
-//                    }
-                    moveFile = new File(outputPathString, file.getAbsolutePath().replace(basePath,""));
-                    String movePath = moveFile.getAbsolutePath();
-                    Files.createDirectories(Paths.get(moveFile.getParent()));
-
-                    try {
-                        Files.move(Paths.get(originalPath), Paths.get(movePath), StandardCopyOption.REPLACE_EXISTING);
-                    } catch (Exception e) {
-                        System.err.println("Unable to move file: " + file);
+            // renames on the same file store are cheap and stay in walk order, copies across stores run on io_threads workers
+            moveBackend = MoveBackend.detect(Path.of(basePath), outputPath);
+            MoveBackend backend = moveBackend;
+            transfer = entry -> moveEntry(instructionName, entry, basePath, outputPathString, backend, destinations);
+            workers = moveBackend.isSameFileStore() ? 1 : getIoThreads(instruction, instructionPlan);
+        } else {
+            copyBackend = getCopyBackend(instruction, parameters);
+            CopyBackend backend = copyBackend;
+            transfer = entry -> copyEntry(instructionName, entry, basePath, outputPathString, backend, destinations, unchanged);
+            workers = getIoThreads(instruction, instructionPlan);
+        }
+
+        if (plan != null) {
+            // a dry run records the transfers in order on a single worker
+            boolean sameFileStore = moveBackend != null && moveBackend.isSameFileStore();
+            boolean move = moveBackend != null;
+            transfer = entry -> {
+                Path target = destinationOf(entry.toFile(), basePath, outputPathString).toPath();
+                if (move) {
+                    return plan.move(instructionName, entry, target, sameFileStore);
+                }
+                if (manifest != null && manifest.isInSync(entry, target)) {
+                    unchanged.incrementAndGet();
+                    return target.toFile();
+                }
+                return plan.copy(instructionName, entry, target);
+            };
+            workers = 1;
+        } else if (previousGroup != null) {
+            // The entries of a previous group are known up front, so their output folders are all made before the transfers
+            prepareDestinations(instruction, previousGroup, basePath, outputPathString, destinations, workers);
+        }
+
+        GroupPipeline pipeline = new GroupPipeline(workers, GroupPipeline.DEFAULT_CAPACITY, transfer);
+        pipeline.start();
+
+        try {
+            if (previousGroup != null) {
+                // Folders that are moved take their content with them. Their content is not submitted so that
+                // parallel workers never move a file and its folder at the same time.
+                HashSet<Path> movedFolders = new HashSet<>();
+
+                // iterate over all files in the group target for the ones that satisfy the filter
+                for (File file : previousGroup) {
+                    FileEntry entry = plan == null ? FileEntry.read(file.toPath()) : plan.read(file.toPath());
+                    if (entry == null && journal != null && journal.getCompletedTarget(instructionName, ExecutionPlan.Operation.MOVE, file.toPath()) != null) {
+                        // moved by the interrupted run this one resumes
+                        continue;
+                    }
+                    if (entry == null) {
+                        reporter.fileError(instructionName, "missing", file.getAbsolutePath(),
+                                String.format("A specified file does not exist: %s. Might have been moved or deleted. Ignoring.", file.getAbsolutePath()));
+                    } else if (filterPlan.test(entry)) {
+                        if (moveBackend != null && isInsideAny(entry.getPath(), movedFolders)) {
+                            reporter.file(instructionName, "missing", file.getAbsolutePath(), "Could not find file: " + file);
+                            continue;
+                        }
+                        if (moveBackend != null && entry.isDirectory()) {
+                            movedFolders.add(entry.getPath());
+                        }
+                        pipeline.submit(entry);
                     }
-                    groupedFilesResult.add(moveFile);
-                } else {
-                    System.out.println("Could not find file: " + file);
                 }
-            }
-        } else {
-            for (File file : groupTarget) {
-                if (file.exists()) {
-                    originalPath= file.getAbsolutePath();
-                    File copyFile;
-//                    if (memory.hasGroupedFilesFromInstruction(basePath)){
-//                         copyFile = new File(outputPathString, file.getName().replace(basePath,""));
-//                    } else {
-//                         copyFile = new File(outputPathString, file.getAbsolutePath().replace(basePath,""));
-//                    }
-                    copyFile = new File(outputPathString, file.getAbsolutePath().replace(basePath,""));
-
-                    String copyPath = copyFile.getAbsolutePath();
-                    Files.createDirectories(Paths.get(copyFile.getParent()));
-
-                    try {
-                        Files.copy(Paths.get(originalPath), Paths.get(copyPath), StandardCopyOption.REPLACE_EXISTING);
-                    } catch (Exception e) {
-                        System.err.println("Unable to copy file: " + file);
+            } else {
+                // Walk the directory and submit all files that satisfies the filter. The output folder is never walked,
+                // and folders that are moved are not descended into since their content moves with them.
+                TreeWalker walker = instructionPlan.compiled("walker", () -> makeTreeWalker(instruction, parameters, false, Integer.MAX_VALUE))
+                        .excluding(outputPath);
+                if (mode.equals("move")) {
+                    walker = walker.skippingAcceptedDirectories();
+                }
+                String chainedInstruction = groupTargetString;
+                Predicate<FileEntry> filter = entry -> {
+                    if (!filterPlan.test(entry)) {
+                        return false;
+                    }
+                    if (memory.hasGroupedFilesFromInstruction(chainedInstruction)){
+                        return memory.isInGroup(chainedInstruction, entry.getPath());
                     }
-                    groupedFilesResult.add(copyFile);
+                    return true;
+                };
+                // a dry run walks the folder as the earlier planned operations left it
+                try {
+                    if (plan != null) {
+                        plan.walk(groupTargetPath, walker, filter, pipeline::submit);
+                    } else {
+                        makeTreeScanner(instruction, parameters, walker).walk(groupTargetPath, filter, pipeline::submit);
+                    }
+                } catch (IOException e) {
+                    throw walkFailure(instruction, groupTargetPath, e);
                 }
             }
+        } catch (Exception e) {
+            pipeline.abort();
+            throw e;
         }
 
+        ArrayList<File> groupedFilesResult = pipeline.finish();
+        if (journal != null && moveBackend != null) {
+            // moved by the interrupted run this one resumes, the walk no longer finds them
+            HashSet<File> grouped = new HashSet<>(groupedFilesResult);
+            for (File moved : journal.getMovedEntries(instructionName)) {
+                if (moved.exists() && grouped.add(moved)) {
+                    groupedFilesResult.add(moved);
+                }
+            }
+        }
+        reportTransferFailures(instructionName, mode, pipeline.getFailures());
+        if (unchanged.get() > 0) {
+            reporter.instruction(instructionName, "unchanged", String.format("Instruction %s skipped %d unchanged file(s)", instructionName, unchanged.get()));
+        }
+        if (copyBackend != null && !groupedFilesResult.isEmpty()) {
+            reporter.instruction(instructionName, "copy_metrics", String.format("Files copied for instruction %s: %s", instructionName, copyBackend.describeMetrics()));
+        }
+        if (plan != null) {
+            reporter.instruction(instructionName, "planned", String.format("Instruction %s would group %d file(s) into %s",
+                    instructionName, groupedFilesResult.size(), outputPath));
+        } else {
+            reporter.instruction(instructionName, "grouped", String.format("Instruction %s grouped %d file(s) into %s",
+                    instructionName, groupedFilesResult.size(), outputPath));
+        }
 
+        long bytes = 0;
+        if (copyBackend != null) {
+            for (CopyBackend.Strategy strategy : CopyBackend.Strategy.values()) {
+                bytes += copyBackend.getByteCount(strategy);
+            }
+        }
+        count(instructionName, groupedFilesResult.size(), bytes);
 
         memory.storeBasePath(instructionName, outputPath.toAbsolutePath().toString());
         memory.storeGroupResult(instructionName, groupedFilesResult);
     }
 
+    // Moves a single grouped entry into the output folder, keeping its path relative to the group target
+    private File moveEntry(String instructionName, FileEntry entry, String basePath, String outputPathString,
+                           MoveBackend moveBackend, DestinationDirectories destinations) throws IOException {
+        File file = entry.toFile();
+        File moveFile = destinationOf(file, basePath, outputPathString);
+        destinations.ensure(Paths.get(moveFile.getParent()));
 
-    private boolean isSatisfiedByOptions(String absolutePath, HashMap<String, String> filterOptions) {
-        Path path = Paths.get(absolutePath).toAbsolutePath();
-
-        File file = new File(String.valueOf(path));
-
-        return isSatisfiedByOptions(file, filterOptions);
+        try {
+            moveBackend.move(entry, moveFile.toPath().toAbsolutePath());
+        } catch (NoSuchFileException e) {
+            // moved away together with a parent folder that was grouped before it
+            reporter.file(instructionName, "missing", file.getAbsolutePath(), "Could not find file: " + file);
+            return null;
+        }
+        if (journal != null) {
+            journal.record(instructionName, ExecutionPlan.Operation.MOVE, entry.getPath(), moveFile.toPath());
+        }
+        return moveFile;
     }
 
-    private boolean isSatisfiedByOptions(Path pathToTest, HashMap<String, String> filterOptions) {
-        File file = new File(String.valueOf(pathToTest));
+    // Copies a single grouped entry into the output folder, keeping its path relative to the group target
+    private File copyEntry(String instructionName, FileEntry entry, String basePath, String outputPathString, CopyBackend copyBackend,
+                           DestinationDirectories destinations, AtomicInteger unchanged) throws IOException {
+        File file = entry.toFile();
+        File copyFile = destinationOf(file, basePath, outputPathString);
 
-        return isSatisfiedByOptions(file, filterOptions);
-    }
-
-    private boolean isSatisfiedByOptions(File fileToTest, HashMap<String, String> filterOptions) {
-        if (!fileToTest.exists()) {
-            System.err.printf("A specified file does not exist: %s. Might have been moved or deleted. Ignoring.%n", fileToTest.getAbsolutePath());
-            return false;
+        // copied by the interrupted run this one resumes
+        if (journal != null && copyFile.toPath().toAbsolutePath().equals(journal.getCompletedTarget(instructionName, ExecutionPlan.Operation.COPY, entry.getPath()))
+                && copyFile.exists()) {
+            return copyFile;
         }
-        String fileName = fileToTest.getName();
-
-
-        if (filterOptions.containsKey("contains")){
-            if (!fileName.contains(filterOptions.get("contains"))){
-                return false;
-            }
+        // in sync with the copy of the last run
+        if (manifest != null && manifest.isInSync(entry, copyFile.toPath())) {
+            unchanged.incrementAndGet();
+            return copyFile;
         }
+        destinations.ensure(Paths.get(copyFile.getParent()));
 
-        if (filterOptions.containsKey("regex")){
-            if (Pattern.compile(filterOptions.get("regex")).matcher(fileName).groupCount() < 1) {
-                return false;
-            }
+        try {
+            copyBackend.copy(entry, copyFile.toPath().toAbsolutePath());
+        } catch (NoSuchFileException e) {
+            return null;
         }
-
-
-        if (filterOptions.containsKey("extension")){
-            if (!fileName.substring(fileName.lastIndexOf(".") + 1).equals(filterOptions.get("extension"))) {
-                return false;
-            }
+        if (journal != null) {
+            journal.record(instructionName, ExecutionPlan.Operation.COPY, entry.getPath(), copyFile.toPath());
         }
-
-        if (filterOptions.containsKey("type")){
-            if (Objects.equals(filterOptions.get("type"), "folder") && !fileToTest.isDirectory()) {
-                return false;
-            } else if (Objects.equals(filterOptions.get("type"), "file") && fileToTest.isDirectory()){
-                return false;
-            }
+        if (manifest != null) {
+            manifest.record(entry, copyFile.toPath());
         }
+        return copyFile;
+    }
 
-        if (filterOptions.containsKey("modified_date")){
-            String[] split = filterOptions.get("modified_date").split(" ");
-
-            if (split.length < 2 || split.length > 3) {
-                throw new SimpleFilesExecutionException("Cannot properly parse parameter arguments for modified_date");
-            }
-            String rangeComparator = split[0]; // The before, after, or between
-            if (!rangeComparator.matches("(?i)before|after|between")) {
-                throw new SimpleFilesExecutionException("Unknown range comparator: " + rangeComparator);
-            }
-
-            // parse the dates
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy/MM/dd-HH:mm", Locale.getDefault());
-            LocalDateTime firstDate;
-            LocalDateTime secondDate;
-            try {
-                firstDate = LocalDateTime.parse(split[1], formatter);
-                secondDate = split.length == 3 ? LocalDateTime.parse(split[2], formatter) : null;
-            } catch (DateTimeParseException e) {
-                throw new SimpleFilesExecutionException("Error encountered when trying to parse the given date: " + e.getMessage());
-            }
-
-
-            LocalDateTime fileModifiedTime;
-            try {
-                fileModifiedTime = LocalDateTime.ofInstant(Files.getLastModifiedTime(fileToTest.toPath()).toInstant(), ZoneId.systemDefault());
-            } catch (IOException e) {
-                throw new SimpleFilesExecutionException(String.format("IOException occurred when trying to access file: %s.", fileToTest.getAbsolutePath()));
-            }
+    // Where a grouped file ends up, keeping its path relative to the group target
+    private static File destinationOf(File file, String basePath, String outputPathString) {
+        return new File(outputPathString, file.getAbsolutePath().replace(basePath,""));
+    }
 
-            if (rangeComparator.equalsIgnoreCase("BEFORE") && fileModifiedTime.isAfter(firstDate)) {
-                return false;
-            } else if (rangeComparator.equalsIgnoreCase("AFTER") && fileModifiedTime.isBefore(firstDate)) {
-                return false;
-            } else if (rangeComparator.equalsIgnoreCase("BETWEEN") && secondDate!= null && (fileModifiedTime.isBefore(firstDate) || fileModifiedTime.isAfter(secondDate))) {
-                return false;
-            } // not checking if range comparator is valid
+    // Creates the distinct parent folders of every grouped file before any of them is transferred
+    private void prepareDestinations(Instruction instruction, ArrayList<File> files, String basePath, String outputPathString,
+                                     DestinationDirectories destinations, int workers) throws SimpleFilesExecutionException {
+        HashSet<Path> folders = new HashSet<>();
+        for (File file : files) {
+            folders.add(Paths.get(destinationOf(file, basePath, outputPathString).getParent()));
         }
+        try {
+            destinations.prepare(folders, workers);
+        } catch (IOException e) {
+            String msg = String.format(
+                    "Error encountered running instruction: %s. Unable to create output folder: %s",
+                    instruction.getName(), e.getMessage());
+            throw new SimpleFilesExecutionException(msg);
+        }
+    }
 
-        if (filterOptions.containsKey("size") && !filterOptions.containsKey("comparator")) {
-            throw new SimpleFilesExecutionException("Size comparison missing comparator parameter.");
-        } else if (!filterOptions.containsKey("size") && filterOptions.containsKey("comparator")) {
-            throw new SimpleFilesExecutionException("Size comparison missing size parameter.");
-        } else if (filterOptions.containsKey("size") && filterOptions.containsKey("comparator")) {
-            String comparator = filterOptions.get("comparator");
-
-            int size;
-            try {
-                size = Integer.parseInt(filterOptions.get("size")) * 1024; // input size is kb, must convert to bytes
-                if (comparator.equals("GT") && Files.size(fileToTest.toPath()) < size) {
-                    return false;
-                } else if (comparator.equals("LT") && Files.size(fileToTest.toPath()) > size) {
-                    return false;
-                } // not checking if comparator is valid
-            } catch (IOException e) {
-                throw new SimpleFilesExecutionException(String.format("IOException occurred when trying to access file: %s.", fileToTest.getAbsolutePath()));
-            } catch (NumberFormatException e) {
-                throw new SimpleFilesExecutionException("Specified size must be parsable integer.");
-            } catch (Exception e) {
-                throw new SimpleFilesExecutionException("Something went wrong: " + e.getMessage());
+    private static boolean isInsideAny(Path path, HashSet<Path> folders) {
+        for (Path parent = path.getParent(); parent != null; parent = parent.getParent()) {
+            if (folders.contains(parent)) {
+                return true;
             }
         }
-
-        return true;
+        return false;
     }
 
-    private String getFileExtension(File file) {
-        String name = file.getName();
-        int lastIndexOf = name.lastIndexOf(".");
-        if (lastIndexOf == -1) {
-            return ""; // empty extension
+    // Prints one summary for all the files of a group that could not be moved or copied
+    private void reportTransferFailures(String instructionName, String mode, ArrayList<GroupPipeline.TransferFailure> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder(String.format("Unable to %s %d file(s) for instruction %s:", mode, failures.size(), instructionName));
+        for (GroupPipeline.TransferFailure failure : failures) {
+            summary.append(System.lineSeparator()).append("    ").append(failure.getFile()).append(" (").append(failure.getReason()).append(")");
         }
-        return name.substring(lastIndexOf);
+        reporter.error(instructionName, summary.toString());
     }
 
-    private String getFileNameWithoutExtension(File file) {
-        String name = file.getName();
-        return name.replaceFirst("[.][^.]+$", "");
+    // Copy strategy from the optional copy_backend parameter, defaults to a kernel transfer
+    private CopyBackend getCopyBackend(Instruction instruction, Map<String, String> parameters) {
+        String name = parameters.getOrDefault("copy_backend", "auto");
+        CopyBackend copyBackend = CopyBackend.forName(name);
+        if (copyBackend == null) {
+            String msg = String.format(
+                    "Error encountered running instruction: %s. Unknown copy_backend: %s.",
+                    instruction.getName(), name);
+            throw new SimpleFilesExecutionException(msg);
+        }
+        return copyBackend;
     }
 
+    // Number of worker threads used for file transfers, defaults to 1. Parsed once per plan.
+    private int getIoThreads(Instruction instruction, InstructionPlan instructionPlan) {
+        return instructionPlan.compiled("io_threads", () -> parseIoThreads(instruction, instructionPlan.getParameters()));
+    }
 
-    // Get list of names from dynamic construct
-    private ArrayList<String> getNameList(String name, int count) throws SimpleFilesExecutionException {
-        ArrayList<String> name_list = new ArrayList<>();
-
-        // default value
-        int incr = 1;
-        int startNum = 0;
+    private static int parseIoThreads(Instruction instruction, Map<String, String> parameters) {
+        if (!parameters.containsKey("io_threads")) {
+            return 1;
+        }
+        int ioThreads;
+        try {
+            ioThreads = Integer.parseInt(parameters.get("io_threads"));
+        } catch (NumberFormatException e) {
+            String msg = String.format(
+                    "Error encountered running instruction: %s. Invalid format for io_threads: %s.",
+                    instruction.getName(), parameters.get("io_threads"));
+            throw new SimpleFilesExecutionException(msg);
+        }
+        if (ioThreads < 1) {
+            String msg = String.format(
+                    "Error encountered running instruction: %s. io_threads can not be less than 1: %s.",
+                    instruction.getName(), parameters.get("io_threads"));
+            throw new SimpleFilesExecutionException(msg);
+        }
+        return ioThreads;
+    }
 
-        int money_sep = name.indexOf("$");
 
-        // when not using dynamic construct
-        if (money_sep == -1 && count > 1){
-            throw new SimpleFilesExecutionException("Count is more than 1. Missing dynamic construct for name");
-        } else if (money_sep == -1){
-            name_list.add(name);
-            return name_list;
-        }
+    // Map based filter check, compiles the options on every call. Walks should compile a FilterPlan once instead.
+    boolean isSatisfiedByOptions(File fileToTest, HashMap<String, String> filterOptions) {
+        return FilterPlan.compile(filterOptions).test(fileToTest);
+    }
 
-        // Dynamic construct validity check
-        if (validDConstructSyntax(name)) {
-            // prefixFileName is the file Name before $ which is start of iterator;
-            String prefixFileName = name.substring(0, money_sep);
-            String nameAfterIterator = name.substring(name.indexOf("}") + 1);
-            String Iterator = name.substring(name.indexOf("{") + 1, name.indexOf("}"));
+    private static SimpleFilesExecutionException walkFailure(Instruction instruction, Path folder, IOException e) {
+        String msg = String.format("Error encountered running instruction: %s. Unable to walk %s: %s",
+                instruction.getName(), folder, e);
+        return new SimpleFilesExecutionException(msg);
+    }
 
-            // Splitting the fileName with ":"
-            String[] dynamicIterator = Iterator.split(":");
-            if (dynamicIterator.length == 3){
-                // startNum is the element after first ":"
-                startNum = Integer.parseInt(dynamicIterator[1]);
-                // incr is the element after second ":"
-                incr = Integer.parseInt(dynamicIterator[2]);
-            } else if (dynamicIterator.length == 2) {
-                startNum = Integer.parseInt(dynamicIterator[1]);
+    // Builds the walker for an instruction using the optional max_depth and exclude_dir parameters.
+    // max_depth can only narrow the default depth of the action.
+    private TreeWalker makeTreeWalker(Instruction instruction, Map<String, String> parameters, boolean includeRoot, int defaultDepth) {
+        int maxDepth = defaultDepth;
+        if (parameters.containsKey("max_depth")) {
+            try {
+                maxDepth = Math.min(defaultDepth, Integer.parseInt(parameters.get("max_depth")));
+            } catch (NumberFormatException e) {
+                String msg = String.format(
+                        "Error encountered running instruction: %s. Invalid format for max_depth: %s.",
+                        instruction.getName(), parameters.get("max_depth"));
+                throw new SimpleFilesExecutionException(msg);
             }
-
-            for (int i = 0; i < count; i++){
-                name_list.add(prefixFileName + (startNum + i * incr) + nameAfterIterator);
+            if (maxDepth < 1) {
+                String msg = String.format(
+                        "Error encountered running instruction: %s. max_depth can not be less than 1: %s.",
+                        instruction.getName(), parameters.get("max_depth"));
+                throw new SimpleFilesExecutionException(msg);
             }
         }
-        return name_list;
-   }
 
-    private boolean validDConstructSyntax(String name) {
+        Set<String> excludedDirectories = new HashSet<>();
+        if (parameters.containsKey("exclude_dir")) {
+            for (String dirName : parameters.get("exclude_dir").split(";")) {
+                if (!dirName.trim().isEmpty()) {
+                    excludedDirectories.add(dirName.trim());
+                }
+            }
+        }
 
-        // Will match letter or _,
-        // follow by 3 options: 1. ${ITERATOR} 2.${ITERATOR:int} 3. ${ITERATOR:int:int or -int} ,
-        // follow by letter or . and letter for possible extension.
-        String regex = "^[a-zA-Z_ ]+\\$\\{ITERATOR(:-?\\d+(:-?\\d+)?)?}+[a-zA-Z.]*[a-zA-Z]?$";
+        return new TreeWalker(includeRoot, maxDepth, excludedDirectories);
+    }
 
-        // Compile the regex pattern
-        Pattern pattern = Pattern.compile(regex);
+    // Uses the fork/join scanner instead of the walker when scan_threads is more than 1.
+    // scan_order = "name" sorts the scanned entries within every folder.
+    private TreeScanner makeTreeScanner(Instruction instruction, Map<String, String> parameters, TreeWalker walker) {
+        int scanThreads = 1;
+        if (parameters.containsKey("scan_threads")) {
+            try {
+                scanThreads = Integer.parseInt(parameters.get("scan_threads"));
+            } catch (NumberFormatException e) {
+                String msg = String.format(
+                        "Error encountered running instruction: %s. Invalid format for scan_threads: %s.",
+                        instruction.getName(), parameters.get("scan_threads"));
+                throw new SimpleFilesExecutionException(msg);
+            }
+            if (scanThreads < 1) {
+                String msg = String.format(
+                        "Error encountered running instruction: %s. scan_threads can not be less than 1: %s.",
+                        instruction.getName(), parameters.get("scan_threads"));
+                throw new SimpleFilesExecutionException(msg);
+            }
+        }
 
-        // Match the folder name against the pattern
-        Matcher matcher = pattern.matcher(name);
+        // a single thread keeps using the plain walker, which avoids the pool overhead on small trees
+        if (scanThreads == 1) {
+            return walker;
+        }
+        boolean sorted = Objects.equals(parameters.get("scan_order"), "name");
+        return new ParallelTreeScanner(scanThreads, sorted, walker);
+    }
 
-        // Check if the folder name matches the pattern
-        return matcher.matches();
+    // Parameters that tune how an instruction runs rather than which files it selects
+    private static boolean isExecutionParameter(String key) {
+        return key.equals("max_depth") || key.equals("exclude_dir") || key.equals("scan_threads") || key.equals("scan_order")
+                || key.equals("io_threads") || key.equals("copy_backend");
     }
 
     boolean folderNameCheck(String folder_name) {
-       // Define the regex pattern, first ^ is start and $ is ending
-       String regex = "^[^.]+$";
-
-       // Compile the regex pattern
-       Pattern pattern = Pattern.compile(regex);
-
-       // Match the folder name against the pattern
-       Matcher matcher = pattern.matcher(folder_name);
+        return FOLDER_NAME.matcher(folder_name).matches();
+    }
 
-       // Check if the folder name matches the pattern
-       return matcher.matches();
+    // The parameters of the instruction, merged with the condition if provided. Resolved again once a variable changes.
+    private InstructionPlan planFor(Instruction instruction, Condition condition, ActionType action) {
+        return plans.get(instruction, condition, action, memory, () -> condition != null
+                ? mergeParameters(action, instruction.getParameters(), condition.getParameters())
+                : makeParameterMap(instruction.getParameters()));
     }
 
     // Helper that generate map of parameter key, value using instruction parameters and condition parameters, condition
     // parameter will take precedence.
-    private Map<String, String> mergeParameters(String action, ArrayList<Parameter> instruction_parameters, ArrayList<Parameter> condition_parameters) {
+    private Map<String, String> mergeParameters(ActionType action, ArrayList<Parameter> instruction_parameters, ArrayList<Parameter> condition_parameters) {
         Map<String, String> parameter_map = new HashMap<>();
 
         // Add instruction parameters to the map
         for (Parameter p : instruction_parameters) {
-            parameter_map.put(p.getKey(), p.getValue());
+            parameter_map.put(p.getKey(), parameterValue(p));
         }
 
         // Add condition parameters to the map, overriding existing ones
         for (Parameter p : condition_parameters) {
-            if (!ignoreList.shouldIgnore(action, p.getKey())) {
-                parameter_map.put(p.getKey(), p.getValue());
+            if (!ignoreList.shouldIgnore(action.getKeyword(), p.getKey()) && !isGroupModeForRename(action, p)) {
+                parameter_map.put(p.getKey(), parameterValue(p));
             }
 
         }
@@ -776,16 +986,38 @@ public class InstructionRunner {
         return parameter_map;
     }
 
+    // The move or copy mode of a condition shared with a group action, which a rename keeps its own mode for
+    private static boolean isGroupModeForRename(ActionType action, Parameter p) {
+        return action == ActionType.RENAME && p.getKey().equals("mode")
+                && (Objects.equals(p.getRawValue(), "move") || Objects.equals(p.getRawValue(), "copy"));
+    }
+
+    // Adds to the entries and bytes of the current execution of the instruction
+    private void count(String instructionName, long entries, long bytes) {
+        totals.merge(instructionName, new long[]{entries, bytes}, (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]});
+    }
+
+    // The entries and bytes of the execution that just ended, and starts counting the next one
+    long[] takeTotals(String instructionName) {
+        long[] counted = totals.remove(instructionName);
+        return counted == null ? new long[2] : counted;
+    }
+
     // Convert to map from list for faster access
     private Map<String, String> makeParameterMap(ArrayList<Parameter> instruction_parameters){
         Map<String, String> parameter_map = new HashMap<>();
 
         // Add instruction parameters to the map
         for (Parameter p : instruction_parameters) {
-            parameter_map.put(p.getKey(), p.getValue());
+            parameter_map.put(p.getKey(), parameterValue(p));
         }
 
         return parameter_map;
     }
 
+    // Names are compiled into a NameTemplate, which resolves the variables in them itself
+    private String parameterValue(Parameter p) {
+        return p.getKey().equals("name") ? p.getRawValue() : p.getValue(memory);
+    }
+
 }
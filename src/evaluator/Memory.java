@@ -6,17 +6,25 @@ import errors.MemoryAssignmentException;
 import errors.UnknownVariableException;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 
 /**
  * Class to manage memory in the SimpleFiles language.
- * Lazy initializing singleton.
+ * Every run has its own memory, see ExecutionContext.
+ * Safe to use from the threads of parallel executions.
  */
 public class Memory {
+    // This matches the pattern ${ ... }
+    private static final Pattern VARIABLE_REFERENCE = Pattern.compile("\\$\\{.*}");
+
     // Hashmap for variables
     private final HashMap<String, Integer> varToIdx = new HashMap<>();
     private final HashMap<Integer, String> idxToVal = new HashMap<>();
@@ -24,37 +32,42 @@ public class Memory {
     // Index of next available memory (implementation is just an int counter)
     private int availableMemoryIdx = 0;
 
+    // Changes whenever a variable does, values resolved from the variables are valid while it stays the same
+    private long variableVersion = 0;
+
     // Hashmap for group instruction
-    HashMap<String, ArrayList<File>> fileGroups = new HashMap<>();
-    HashMap<String, String> basePaths = new HashMap<>();
+    final ConcurrentHashMap<String, ArrayList<File>> fileGroups = new ConcurrentHashMap<>();
+    final ConcurrentHashMap<String, String> basePaths = new ConcurrentHashMap<>();
 
-    private Memory() {}
+    // Absolute paths of every file group, for constant time membership checks while walking a chained group target
+    private final ConcurrentHashMap<String, Set<String>> groupPathIndex = new ConcurrentHashMap<>();
 
-    private static class SingletonHelper {
-        private static final Memory INSTANCE = new Memory();
-    }
-
-    public static Memory getInstance() {
-        return SingletonHelper.INSTANCE;
-    }
+    // One per run, see ExecutionContext
+    Memory() {}
 
     public void clear() {
         clearVariableMemory();
         clearFileGroupings();
     }
 
-    public void clearVariableMemory() {
+    public synchronized void clearVariableMemory() {
         varToIdx.clear();
         idxToVal.clear();
         availableMemoryIdx = 0;
+        variableVersion++;
+    }
+
+    public synchronized long getVariableVersion() {
+        return variableVersion;
     }
 
     public void clearFileGroupings() {
         fileGroups.clear();
         basePaths.clear();
+        groupPathIndex.clear();
     }
 
-    public void printMemory() {
+    public synchronized void printMemory() {
         StringBuilder varToIdxString= new StringBuilder();
         for (Map.Entry<String, Integer> varToIdxItem : varToIdx.entrySet()) {
             varToIdxString.append(varToIdxItem.getKey());
@@ -76,7 +89,8 @@ public class Memory {
         assignVariable(v.getKey(), v.getValue());
     }
 
-    public void assignVariable(String newKey, String newValue) {
+    public synchronized void assignVariable(String newKey, String newValue) {
+        variableVersion++;
         newValue = newValue.trim();
         if (isVariableReference(newValue)) {
             String valueAsVariable = unwrapVariable(newValue);
@@ -107,7 +121,7 @@ public class Memory {
         return this.getVariableValue(this.unwrapVariable(wrappedVariable));
     }
 
-    public String getVariableValue(String variable) {
+    public synchronized String getVariableValue(String variable) {
         if (varToIdx.containsKey(variable)) {
             return idxToVal.get(varToIdx.get(variable));
         }
@@ -115,7 +129,12 @@ public class Memory {
     }
 
     public void storeGroupResult(String instName, ArrayList<File> files) {
+        HashSet<String> paths = new HashSet<>(files.size() * 2);
+        for (File file : files) {
+            paths.add(file.getAbsolutePath());
+        }
         fileGroups.put(instName, files);
+        groupPathIndex.put(instName, paths);
     }
 
     public void storeBasePath(String instName, String basePath) {
@@ -136,6 +155,13 @@ public class Memory {
         throw new UnknownVariableException(String.format("The base path for instruction %s not found", instName));
     }
 
+    public boolean isInGroup(String instName, Path path) throws UnknownVariableException {
+        if (groupPathIndex.containsKey(instName)) {
+            return groupPathIndex.get(instName).contains(path.toAbsolutePath().toString());
+        }
+        throw new UnknownVariableException(String.format("File grouping for instruction %s not found", instName));
+    }
+
     public boolean hasGroupedFilesFromInstruction(String instName) {
         return fileGroups.containsKey(instName) && basePaths.containsKey(instName);
     }
@@ -145,10 +171,7 @@ public class Memory {
             return false;
         }
 
-        String regex = "\\$\\{.*}"; // This matches the pattern ${ ... }
-        Pattern pattern = Pattern.compile(regex);
-
-        return pattern.matcher(var).matches();
+        return VARIABLE_REFERENCE.matcher(var).matches();
     }
 
     private String unwrapVariable(String var) throws UnknownVariableException {
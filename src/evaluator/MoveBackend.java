@@ -0,0 +1,111 @@
+package evaluator;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Moves single entries for the group action. The file stores of the group target and the output folder are compared
+ * once per instruction. On the same store every move is a plain rename. Across stores an entry is copied with the
+ * copy backend, the copy is checked against the size of the source, and only then is the source deleted, so the
+ * copies can run on several workers instead of the serial copy Files.move would fall back to.
+ */
+public class MoveBackend {
+    private final boolean sameFileStore;
+    private final CopyBackend copyBackend;
+
+    public MoveBackend(boolean sameFileStore, CopyBackend copyBackend) {
+        this.sameFileStore = sameFileStore;
+        this.copyBackend = copyBackend;
+    }
+
+    // Compares the file stores of the source and target folders, both must exist
+    public static MoveBackend detect(Path source, Path target) {
+        boolean sameFileStore;
+        try {
+            FileStore sourceStore = Files.getFileStore(source);
+            sameFileStore = sourceStore.equals(Files.getFileStore(target));
+        } catch (IOException e) {
+            // unknown stores, let Files.move decide per file
+            sameFileStore = true;
+        }
+        return new MoveBackend(sameFileStore, new CopyBackend(CopyBackend.Strategy.TRANSFER));
+    }
+
+    public boolean isSameFileStore() {
+        return sameFileStore;
+    }
+
+    // Moves the entry over the target, replacing an existing file
+    public void move(FileEntry entry, Path target) throws IOException {
+        if (sameFileStore) {
+            rename(entry.getPath(), target);
+        } else if (entry.isDirectory()) {
+            copyTree(entry.getPath(), target);
+            deleteTree(entry.getPath());
+        } else {
+            copyVerified(entry, target);
+            Files.delete(entry.getPath());
+        }
+    }
+
+    private static void rename(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            throw e;
+        } catch (IOException e) {
+            // not supported, or a folder is in the way that a plain rename can not replace
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void copyVerified(FileEntry entry, Path target) throws IOException {
+        copyBackend.copy(entry, target);
+        if (entry.getAttributes().isRegularFile() && Files.size(target) != Files.size(entry.getPath())) {
+            Files.deleteIfExists(target);
+            throw new IOException(String.format("Copy of %s does not match its size, the source is kept.", entry.getPath()));
+        }
+    }
+
+    private void copyTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                copyVerified(new FileEntry(file, attributes), target.resolve(source.relativize(file).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void deleteTree(Path source) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,198 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+import errors.UnknownVariableException;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The name parameter of a create instruction, compiled once. Names are rendered from their index on demand,
+ * so a large count never has to be held as a list, and workers can split the index range between them.
+ *
+ * A name is text with placeholders:
+ * ${ITERATOR}, ${ITERATOR:start}, ${ITERATOR:start:step} and ${ITERATOR:start:step:width} render the iterator,
+ * zero padded to width digits. A name can hold several iterators, they all advance together.
+ * ${DATE} and ${DATE:pattern} render the date and time the name was compiled, by default as yyyyMMdd.
+ * ${VAR} renders the value of a variable. Variable values may hold placeholders themselves.
+ * Everything except the iterators is resolved at compile time.
+ */
+public class NameTemplate {
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+");
+    private static final Pattern WIDTH = Pattern.compile("\\d{1,2}");
+    private static final Pattern VARIABLE = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+    private static final String DEFAULT_DATE_PATTERN = "yyyyMMdd";
+
+    // Variables are expanded at most this deep, so values that reference each other can not loop forever
+    private static final int MAX_VARIABLE_DEPTH = 8;
+
+    // literals[i] is rendered before iterator i, the last literal after the last iterator
+    private final String[] literals;
+    private final long[] starts;
+    private final long[] steps;
+    private final int[] widths;
+    private final int count;
+    private final int expectedLength;
+
+    private NameTemplate(ArrayList<String> literals, ArrayList<long[]> iterators, int count) {
+        this.literals = literals.toArray(new String[0]);
+        this.starts = new long[iterators.size()];
+        this.steps = new long[iterators.size()];
+        this.widths = new int[iterators.size()];
+        for (int i = 0; i < iterators.size(); i++) {
+            starts[i] = iterators.get(i)[0];
+            steps[i] = iterators.get(i)[1];
+            widths[i] = (int) iterators.get(i)[2];
+        }
+        this.count = count;
+
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.expectedLength = length + 12 * iterators.size();
+    }
+
+    public static NameTemplate compile(String name, int count, Memory memory) throws SimpleFilesExecutionException {
+        ArrayList<String> literals = new ArrayList<>();
+        ArrayList<long[]> iterators = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        parse(name, memory, LocalDateTime.now(), 0, literal, literals, iterators);
+        literals.add(literal.toString());
+
+        // when not using dynamic construct
+        if (iterators.isEmpty() && count > 1) {
+            throw new SimpleFilesExecutionException("Count is more than 1. Missing dynamic construct for name");
+        }
+        return new NameTemplate(literals, iterators, iterators.isEmpty() ? 1 : count);
+    }
+
+    private static void parse(String text, Memory memory, LocalDateTime now, int depth, StringBuilder literal,
+                              ArrayList<String> literals, ArrayList<long[]> iterators) {
+        int position = 0;
+        while (position < text.length()) {
+            int open = text.indexOf("${", position);
+            if (open == -1) {
+                literal.append(text, position, text.length());
+                return;
+            }
+            int close = text.indexOf('}', open);
+            if (close == -1) {
+                throw unresolved();
+            }
+            literal.append(text, position, open);
+
+            String placeholder = text.substring(open + 2, close);
+            String[] parts = placeholder.split(":", -1);
+            if (parts[0].equals("ITERATOR")) {
+                iterators.add(parseIterator(parts));
+                literals.add(literal.toString());
+                literal.setLength(0);
+            } else if (parts[0].equals("DATE")) {
+                literal.append(formatDate(placeholder, now));
+            } else if (VARIABLE.matcher(placeholder).matches() && depth < MAX_VARIABLE_DEPTH) {
+                String value;
+                try {
+                    value = memory.getVariableValue(placeholder);
+                } catch (UnknownVariableException e) {
+                    throw unresolved();
+                }
+                parse(value, memory, now, depth + 1, literal, literals, iterators);
+            } else {
+                throw unresolved();
+            }
+            position = close + 1;
+        }
+    }
+
+    // ITERATOR[:start[:step[:width]]] as {start, step, width}
+    private static long[] parseIterator(String[] parts) {
+        if (parts.length > 4) {
+            throw unresolved();
+        }
+        for (int i = 1; i < parts.length; i++) {
+            if (!(i == 3 ? WIDTH : NUMBER).matcher(parts[i]).matches()) {
+                throw unresolved();
+            }
+        }
+        try {
+            long start = parts.length > 1 ? Long.parseLong(parts[1]) : 0;
+            long step = parts.length > 2 ? Long.parseLong(parts[2]) : 1;
+            long width = parts.length > 3 ? Long.parseLong(parts[3]) : 0;
+            return new long[]{start, step, width};
+        } catch (NumberFormatException e) {
+            throw unresolved();
+        }
+    }
+
+    private static String formatDate(String placeholder, LocalDateTime now) {
+        int separator = placeholder.indexOf(':');
+        String pattern = separator == -1 ? DEFAULT_DATE_PATTERN : placeholder.substring(separator + 1);
+        try {
+            return DateTimeFormatter.ofPattern(pattern).format(now);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw unresolved();
+        }
+    }
+
+    private static SimpleFilesExecutionException unresolved() {
+        return new SimpleFilesExecutionException("Error resolving dynamic construct");
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Convenience for single names, loops should render through a Renderer
+    public String render(int index) {
+        return renderer().render(index);
+    }
+
+    // A renderer reuses one buffer for every name, so every worker should have its own
+    public Renderer renderer() {
+        return new Renderer();
+    }
+
+    // The indexes of all names, splits evenly when used in parallel
+    public IntStream indexes() {
+        return IntStream.range(0, count);
+    }
+
+    public Stream<String> names() {
+        return indexes().mapToObj(this::render);
+    }
+
+    public class Renderer {
+        private final StringBuilder buffer = new StringBuilder(expectedLength);
+
+        public String render(int index) {
+            buffer.setLength(0);
+            for (int i = 0; i < starts.length; i++) {
+                buffer.append(literals[i]);
+                appendPadded(starts[i] + index * steps[i], widths[i]);
+            }
+            buffer.append(literals[literals.length - 1]);
+            return buffer.toString();
+        }
+
+        private void appendPadded(long value, int width) {
+            if (value < 0) {
+                buffer.append('-');
+                value = -value;
+            }
+            int digits = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+            for (int i = digits; i < width; i++) {
+                buffer.append('0');
+            }
+            buffer.append(value);
+        }
+    }
+}
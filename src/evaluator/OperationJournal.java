@@ -0,0 +1,251 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Write-ahead journal of the file system operations of a run, one line per completed operation. Every line is written
+ * as soon as its operation completed, so a killed process loses none of them. Lines are forced to disk in batches,
+ * and at the end of every execution together with its result. A run that is resumed
+ * from the journal skips the executions that completed, restoring their results into memory, and skips the
+ * operations an interrupted execution already did. The moves and renames of a journal can be rolled back.
+ * Executions are identified by the instruction name and how many times it was executed before, so a run can only be
+ * resumed with the same script. Fields are separated by tabs, paths are written as they are.
+ */
+public class OperationJournal implements Closeable {
+    // Number of records written before the journal is forced to disk
+    static final int BATCH_SIZE = 64;
+
+    private static final String OPERATION = "OP";
+    private static final String RESULT = "RESULT";
+    private static final String RESULT_FILE = "FILE";
+    private static final String DONE = "DONE";
+
+    // What an earlier run of the journal did for one execution
+    private static class ResumedExecution {
+        private final Map<String, Path> targets = new HashMap<>();
+        private final Set<Path> renamed = new HashSet<>();
+        private final ArrayList<File> moved = new ArrayList<>();
+        private final ArrayList<File> files = new ArrayList<>();
+        private String basePath;
+        private boolean done;
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Map<String, ResumedExecution> resumed;
+
+    // Execution keys, every instruction runs one execution at a time
+    private final Map<String, Integer> executionCounts = new HashMap<>();
+    private final Map<String, String> currentExecutions = new HashMap<>();
+
+    // Records written since the journal was last forced to disk
+    private int pendingRecords;
+
+    private OperationJournal(Path file, FileChannel channel, Map<String, ResumedExecution> resumed) {
+        this.file = file;
+        this.channel = channel;
+        this.resumed = resumed;
+    }
+
+    // Starts a new journal, replacing an existing one
+    public static OperationJournal create(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new OperationJournal(file, channel, Map.of());
+    }
+
+    // Continues the journal of an interrupted run, new records are appended to it
+    public static OperationJournal resume(Path file) throws IOException {
+        Map<String, ResumedExecution> resumed = Files.exists(file) ? parse(Files.readAllLines(file, StandardCharsets.UTF_8)) : Map.of();
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        return new OperationJournal(file, channel, resumed);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // Starts the next execution of the instruction. Returns true if an earlier run completed it, its result is then
+    // stored in memory and the execution must be skipped.
+    public synchronized boolean begin(String instructionName, Memory memory) {
+        int count = executionCounts.merge(instructionName, 1, Integer::sum);
+        String key = count + ":" + instructionName;
+        currentExecutions.put(instructionName, key);
+
+        ResumedExecution execution = resumed.get(key);
+        if (execution == null || !execution.done) {
+            return false;
+        }
+        if (execution.basePath != null) {
+            memory.storeGroupResult(instructionName, new ArrayList<>(execution.files));
+            memory.storeBasePath(instructionName, execution.basePath);
+        }
+        return true;
+    }
+
+    // Records the result of the current execution of the instruction and syncs the journal
+    public synchronized void complete(String instructionName, Memory memory) {
+        String key = currentExecutions.get(instructionName);
+        if (memory.hasGroupedFilesFromInstruction(instructionName)) {
+            append(RESULT, key, memory.getBasePath(instructionName));
+            for (File result : memory.getGroupedFiles(instructionName)) {
+                append(RESULT_FILE, key, result.getAbsolutePath());
+            }
+        }
+        append(DONE, key);
+        sync();
+    }
+
+    // Records a completed operation of the current execution, source is null for creates
+    public synchronized void record(String instructionName, ExecutionPlan.Operation operation, Path source, Path target) {
+        append(OPERATION, currentExecutions.get(instructionName), operation.name(),
+                source == null ? "-" : source.toAbsolutePath().toString(), target.toAbsolutePath().toString());
+        if (pendingRecords >= BATCH_SIZE) {
+            sync();
+        }
+    }
+
+    // Where an earlier run already put the source, null if it did not. Creates are looked up by their target.
+    public synchronized Path getCompletedTarget(String instructionName, ExecutionPlan.Operation operation, Path path) {
+        ResumedExecution execution = resumed.get(currentExecutions.get(instructionName));
+        return execution == null ? null : execution.targets.get(operation.name() + "\t" + path.toAbsolutePath());
+    }
+
+    // The entries an earlier run of the current execution moved, a walk no longer finds them at their source
+    public synchronized List<File> getMovedEntries(String instructionName) {
+        ResumedExecution execution = resumed.get(currentExecutions.get(instructionName));
+        return execution == null ? List.of() : Collections.unmodifiableList(execution.moved);
+    }
+
+    // True if an earlier run of the current execution renamed an entry to this path
+    public synchronized boolean isRenamed(String instructionName, Path path) {
+        ResumedExecution execution = resumed.get(currentExecutions.get(instructionName));
+        return execution != null && execution.renamed.contains(path.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sync();
+        channel.close();
+    }
+
+    /**
+     * Undoes the moves and renames of a journal, newest first. Creates and copies are kept. Returns the number of
+     * entries that were moved back. Entries that can not be moved back are reported and stay in the journal, so the
+     * rollback can be retried, everything else is removed from it.
+     */
+    public static int rollback(Path file, ExecutionReporter reporter) throws IOException {
+        ArrayList<String[]> undo = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length == 5 && fields[0].equals(OPERATION)
+                    && (fields[2].equals(ExecutionPlan.Operation.MOVE.name()) || fields[2].equals(ExecutionPlan.Operation.RENAME.name()))) {
+                undo.add(fields);
+            }
+        }
+        Collections.reverse(undo);
+
+        int undone = 0;
+        ArrayList<String> failed = new ArrayList<>();
+        for (String[] fields : undo) {
+            String instructionName = fields[1].substring(fields[1].indexOf(':') + 1);
+            Path source = Path.of(fields[3]);
+            Path target = Path.of(fields[4]);
+            FileEntry entry = FileEntry.read(target);
+            if (entry == null || Files.exists(source)) {
+                reporter.fileError(instructionName, "rollback_failed", target.toString(),
+                        String.format("Unable to move %s back to %s", target, source));
+                failed.add(String.join("\t", fields));
+                continue;
+            }
+            try {
+                Files.createDirectories(source.getParent());
+                MoveBackend.detect(target.getParent(), source.getParent()).move(entry, source);
+                undone++;
+                reporter.file(instructionName, "rolled_back", source.toString(), String.format("Moved %s back to %s", target, source));
+            } catch (IOException e) {
+                reporter.fileError(instructionName, "rollback_failed", target.toString(),
+                        String.format("Unable to move %s back to %s: %s", target, source, e.getMessage()));
+                failed.add(String.join("\t", fields));
+            }
+        }
+        // the failed records are written back in their original order
+        Collections.reverse(failed);
+        Files.write(file, failed, StandardCharsets.UTF_8);
+        return undone;
+    }
+
+    private static Map<String, ResumedExecution> parse(List<String> lines) {
+        Map<String, ResumedExecution> executions = new HashMap<>();
+        for (String line : lines) {
+            // a line cut off by a crash is ignored, its operation is done again
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 2) {
+                continue;
+            }
+            ResumedExecution execution = executions.computeIfAbsent(fields[1], key -> new ResumedExecution());
+            if (fields[0].equals(OPERATION) && fields.length == 5) {
+                String operation = fields[2];
+                Path target = Path.of(fields[4]);
+                execution.targets.put(operation + "\t" + (fields[3].equals("-") ? fields[4] : fields[3]), target);
+                if (operation.equals(ExecutionPlan.Operation.MOVE.name())) {
+                    execution.moved.add(target.toFile());
+                } else if (operation.equals(ExecutionPlan.Operation.RENAME.name())) {
+                    execution.renamed.add(target);
+                }
+            } else if (fields[0].equals(RESULT) && fields.length == 3) {
+                execution.basePath = fields[2];
+                execution.files.clear();
+            } else if (fields[0].equals(RESULT_FILE) && fields.length == 3) {
+                execution.files.add(new File(fields[2]));
+            } else if (fields[0].equals(DONE) && fields.length == 2) {
+                execution.done = true;
+            }
+        }
+        return executions;
+    }
+
+    // Writes the record to the journal file, it is on disk once the journal is forced
+    private void append(String... fields) {
+        ByteBuffer buffer = ByteBuffer.wrap((String.join("\t", fields) + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new SimpleFilesExecutionException(String.format("Unable to write the journal %s: %s", file, e.getMessage()));
+        }
+        pendingRecords++;
+    }
+
+    // Forces the written records to disk
+    private void sync() {
+        if (pendingRecords == 0) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new SimpleFilesExecutionException(String.format("Unable to write the journal %s: %s", file, e.getMessage()));
+        }
+        pendingRecords = 0;
+    }
+}
@@ -0,0 +1,152 @@
+package evaluator;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Scans a directory tree on a ForkJoinPool, with one task per directory. Unsorted walks hand every accepted entry to
+ * the sink as soon as a task finds it, so the sink can start working while the scan is still running. Collected
+ * results, and sorted walks, join the results of the subdirectories in listing order, so the output has the same
+ * pre-order shape as the TreeWalker. When sorted, the entries of every directory are ordered by name, which makes the
+ * result independent of the order the file system lists them in. Like the TreeWalker, a walker that skips accepted
+ * directories never descends into them.
+ */
+public class ParallelTreeScanner implements TreeScanner {
+    private final int parallelism;
+    private final boolean sorted;
+    private final TreeWalker walker;
+
+    public ParallelTreeScanner(int parallelism, boolean sorted, TreeWalker walker) {
+        this.parallelism = parallelism;
+        this.sorted = sorted;
+        this.walker = walker;
+    }
+
+    // The sink is called from the scan threads, one call at a time. A sorted walk hands the entries over in the
+    // merged order once the scan is done.
+    @Override
+    public void walk(Path root, Predicate<FileEntry> filter, Consumer<FileEntry> sink) throws IOException {
+        if (sorted) {
+            collect(root, filter).forEach(sink);
+            return;
+        }
+        Object lock = new Object();
+        scan(root, filter, entry -> {
+            synchronized (lock) {
+                sink.accept(entry);
+            }
+        });
+    }
+
+    @Override
+    public ArrayList<FileEntry> collect(Path root, Predicate<FileEntry> filter) throws IOException {
+        return scan(root, filter, null);
+    }
+
+    // Streams the accepted entries to the sink, or returns them in merged order when the sink is null
+    private ArrayList<FileEntry> scan(Path root, Predicate<FileEntry> filter, Consumer<FileEntry> sink) throws IOException {
+        BasicFileAttributes rootAttributes = Files.readAttributes(root, BasicFileAttributes.class);
+        ArrayList<FileEntry> entries = new ArrayList<>();
+        if (walker.includesRoot() && filter.test(new FileEntry(root, rootAttributes))) {
+            if (sink != null) {
+                sink.accept(new FileEntry(root, rootAttributes));
+            } else {
+                entries.add(new FileEntry(root, rootAttributes));
+            }
+        }
+        if (!rootAttributes.isDirectory()) {
+            return entries;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            entries.addAll(pool.invoke(new DirectoryTask(root, 1, filter, sink)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        return entries;
+    }
+
+    // Lists one directory and forks a task for every subdirectory that still needs to be scanned
+    private class DirectoryTask extends RecursiveTask<List<FileEntry>> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+        private final int depth;
+        private final Predicate<FileEntry> filter;
+        private final Consumer<FileEntry> sink;
+
+        DirectoryTask(Path dir, int depth, Predicate<FileEntry> filter, Consumer<FileEntry> sink) {
+            this.dir = dir;
+            this.depth = depth;
+            this.filter = filter;
+            this.sink = sink;
+        }
+
+        @Override
+        protected List<FileEntry> compute() {
+            ArrayList<FileEntry> children = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path child : stream) {
+                    FileEntry entry = new FileEntry(child, Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS));
+                    if (!entry.isDirectory() || !walker.isExcluded(child)) {
+                        children.add(entry);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (sorted) {
+                children.sort(Comparator.comparing(FileEntry::getName));
+            }
+
+            // Filter this directory first, an accepted directory is not descended into when the walker skips them
+            boolean[] accepted = new boolean[children.size()];
+            for (int i = 0; i < children.size(); i++) {
+                accepted[i] = filter.test(children.get(i));
+                if (accepted[i] && sink != null) {
+                    sink.accept(children.get(i));
+                }
+            }
+
+            ArrayList<DirectoryTask> subtasks = new ArrayList<>();
+            for (int i = 0; i < children.size(); i++) {
+                FileEntry child = children.get(i);
+                if (child.isDirectory() && depth < walker.getMaxDepth() && !(accepted[i] && walker.skipsAcceptedDirectories())) {
+                    DirectoryTask subtask = new DirectoryTask(child.getPath(), depth + 1, filter, sink);
+                    subtask.fork();
+                    subtasks.add(subtask);
+                } else {
+                    subtasks.add(null);
+                }
+            }
+
+            ArrayList<FileEntry> result = new ArrayList<>();
+            for (int i = 0; i < children.size(); i++) {
+                if (accepted[i] && sink == null) {
+                    result.add(children.get(i));
+                }
+                if (subtasks.get(i) != null) {
+                    result.addAll(subtasks.get(i).join());
+                }
+            }
+            return result;
+        }
+    }
+}
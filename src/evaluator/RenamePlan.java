@@ -0,0 +1,277 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The renames of a rename instruction, planned before any file is touched. Entries whose name does not change are
+ * dropped, and entries that would end up on the same name, or on an existing file, are reported as conflicts instead
+ * of overwriting each other. A target that is itself renamed away is free once that rename is done, so chains like
+ * a.txt to b.txt and b.txt to c.txt are applied from the end, while swaps and longer cycles are conflicts.
+ * Folders that ignore case are detected, so APPLE.txt and apple.txt conflict there.
+ * The renames are applied deepest first, so renaming a folder never moves an entry that still has to be renamed.
+ * The entries of one depth are renamed in parallel, one folder per worker.
+ */
+public class RenamePlan {
+    private static final int MAX_LISTED_FAILURES = 10;
+
+    // A single planned rename, target is in the same folder as source
+    public static class Rename {
+        private final File source;
+        private final File target;
+
+        Rename(File source, File target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        public File getSource() {
+            return source;
+        }
+
+        public File getTarget() {
+            return target;
+        }
+    }
+
+    private final ArrayList<Rename> renames = new ArrayList<>();
+    private final ArrayList<String> failures = new ArrayList<>();
+    private final AtomicInteger renamed = new AtomicInteger();
+
+    private RenamePlan() {
+    }
+
+    // Maps every file to its new name, the name function returns the new file name without the folder
+    public static RenamePlan build(List<File> files, Function<File, String> newName) {
+        RenamePlan plan = new RenamePlan();
+        HashMap<Path, Boolean> caseInsensitive = new HashMap<>();
+        LinkedHashMap<String, ArrayList<Rename>> byTarget = new LinkedHashMap<>();
+        HashMap<Rename, String> sourceKeys = new HashMap<>();
+        HashMap<String, String> targetKeys = new HashMap<>();
+
+        for (File file : files) {
+            File source = file.getAbsoluteFile();
+            String name = newName.apply(source);
+            if (name.equals(source.getName())) {
+                continue;
+            }
+            File target = new File(source.getParentFile(), name);
+            boolean ignoresCase = ignoresCase(source, caseInsensitive);
+            String key = ignoresCase ? target.getPath().toLowerCase(Locale.ROOT) : target.getPath();
+            String sourceKey = ignoresCase ? source.getPath().toLowerCase(Locale.ROOT) : source.getPath();
+            Rename rename = new Rename(source, target);
+            byTarget.computeIfAbsent(key, k -> new ArrayList<>()).add(rename);
+            sourceKeys.put(rename, sourceKey);
+            targetKeys.put(sourceKey, key);
+        }
+
+        // Renames onto a free name go first, a rename onto a planned source waits until that source is renamed
+        ArrayList<Rename> ready = new ArrayList<>();
+        LinkedHashMap<String, Rename> waiting = new LinkedHashMap<>();
+        for (Map.Entry<String, ArrayList<Rename>> candidates : byTarget.entrySet()) {
+            Rename rename = candidates.getValue().get(0);
+            if (candidates.getValue().size() > 1) {
+                for (Rename candidate : candidates.getValue()) {
+                    plan.failures.add(String.format("%s (%d entries would be renamed to %s)",
+                            candidate.source.getPath(), candidates.getValue().size(), rename.target.getName()));
+                }
+            } else if (!rename.target.exists() || isSameFile(rename.source, rename.target)) {
+                ready.add(rename);
+            } else if (targetKeys.containsKey(candidates.getKey()) && byTarget.get(targetKeys.get(candidates.getKey())).size() == 1) {
+                waiting.put(candidates.getKey(), rename);
+            } else {
+                plan.failures.add(String.format("%s (%s already exists)", rename.source.getPath(), rename.target.getName()));
+            }
+        }
+
+        for (int i = 0; i < ready.size(); i++) {
+            Rename rename = ready.get(i);
+            plan.renames.add(rename);
+            Rename dependent = waiting.remove(sourceKeys.get(rename));
+            if (dependent != null) {
+                ready.add(dependent);
+            }
+        }
+        // What is still waiting is part of a swap or a longer cycle, or waits on a rename that failed.
+        // Renames wait under the source of the rename they wait on, so a chain is followed from target to target.
+        HashMap<String, Boolean> inCycle = new HashMap<>();
+        for (String key : waiting.keySet()) {
+            LinkedHashMap<String, Boolean> chain = new LinkedHashMap<>();
+            String next = key;
+            while (waiting.containsKey(next) && !inCycle.containsKey(next) && !chain.containsKey(next)) {
+                chain.put(next, false);
+                next = targetKeys.get(next);
+            }
+            boolean cycle = false;
+            for (String link : chain.keySet()) {
+                cycle = cycle || link.equals(next);
+                inCycle.put(link, cycle);
+            }
+        }
+        for (Map.Entry<String, Rename> rename : waiting.entrySet()) {
+            String reason = inCycle.get(rename.getKey()) ? "%s (%s already exists and is renamed in a cycle)" : "%s (%s already exists)";
+            plan.failures.add(String.format(reason, rename.getValue().source.getPath(), rename.getValue().target.getName()));
+        }
+        return plan;
+    }
+
+    // The renames that will be applied, conflicts and unchanged names are not part of it
+    public ArrayList<Rename> getRenames() {
+        return renames;
+    }
+
+    // Renames every planned entry, deepest first. Every rename is passed to the listener once it is done.
+    public void apply(int workers, Consumer<Rename> listener) {
+        // deepest level first, and per level one group of renames for every folder
+        TreeMap<Integer, LinkedHashMap<File, ArrayList<Rename>>> levels = new TreeMap<>((a, b) -> b - a);
+        for (Rename rename : renames) {
+            levels.computeIfAbsent(rename.source.toPath().getNameCount(), depth -> new LinkedHashMap<>())
+                    .computeIfAbsent(rename.source.getParentFile(), folder -> new ArrayList<>())
+                    .add(rename);
+        }
+
+        ExecutorService pool = workers > 1 ? Executors.newFixedThreadPool(workers, new WorkerFactory()) : null;
+        try {
+            for (LinkedHashMap<File, ArrayList<Rename>> level : levels.values()) {
+                if (pool == null || level.size() == 1) {
+                    for (ArrayList<Rename> folder : level.values()) {
+                        renameAll(folder, listener);
+                    }
+                } else {
+                    renameInParallel(pool, level, listener);
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    public int getRenamedCount() {
+        return renamed.get();
+    }
+
+    // Throws one exception listing the conflicts and failed renames, if there were any
+    public void throwFailures(String instructionName) throws SimpleFilesExecutionException {
+        if (failures.isEmpty()) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder();
+        synchronized (failures) {
+            for (int i = 0; i < failures.size() && i < MAX_LISTED_FAILURES; i++) {
+                summary.append(i == 0 ? " " : ", ").append(failures.get(i));
+            }
+            if (failures.size() > MAX_LISTED_FAILURES) {
+                summary.append(String.format(" and %d more", failures.size() - MAX_LISTED_FAILURES));
+            }
+        }
+        String msg = String.format("Error encountered running instruction: %s. Failed to rename %d file(s):%s",
+                instructionName, failures.size(), summary);
+        throw new SimpleFilesExecutionException(msg);
+    }
+
+    private void renameInParallel(ExecutorService pool, LinkedHashMap<File, ArrayList<Rename>> level,
+                                  Consumer<Rename> listener) {
+        ArrayList<Callable<Void>> tasks = new ArrayList<>(level.size());
+        for (ArrayList<Rename> folder : level.values()) {
+            tasks.add(() -> {
+                renameAll(folder, listener);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> task : pool.invokeAll(tasks)) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SimpleFilesExecutionException("Interrupted while renaming files.");
+        } catch (ExecutionException e) {
+            throw new SimpleFilesExecutionException(String.valueOf(e.getCause().getMessage()));
+        }
+    }
+
+    private void renameAll(ArrayList<Rename> folder, Consumer<Rename> listener) {
+        for (Rename rename : folder) {
+            boolean success;
+            try {
+                success = rename.source.renameTo(rename.target);
+            } catch (SecurityException e) {
+                success = false;
+            }
+            if (success) {
+                renamed.incrementAndGet();
+                listener.accept(rename);
+            } else {
+                synchronized (failures) {
+                    failures.add(String.format("%s (%s)", rename.source.getPath(),
+                            rename.source.exists() ? "rename refused" : "file is gone"));
+                }
+            }
+        }
+    }
+
+    // Looks the entry up under its name in swapped case, which only finds it when the folder ignores case.
+    // Names without letters tell nothing, the folder is then probed again with the next entry in it.
+    private static boolean ignoresCase(File entry, HashMap<Path, Boolean> folders) {
+        Path folder = entry.getParentFile().toPath();
+        Boolean known = folders.get(folder);
+        if (known != null) {
+            return known;
+        }
+        String swapped = swapCase(entry.getName());
+        if (swapped.equals(entry.getName())) {
+            return false;
+        }
+        boolean ignoresCase = isSameFile(entry, new File(entry.getParentFile(), swapped));
+        folders.put(folder, ignoresCase);
+        return ignoresCase;
+    }
+
+    private static String swapCase(String name) {
+        StringBuilder swapped = new StringBuilder(name.length());
+        for (char c : name.toCharArray()) {
+            swapped.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return swapped.toString();
+    }
+
+    private static boolean isSameFile(File a, File b) {
+        try {
+            return b.exists() && Files.isSameFile(a.toPath(), b.toPath());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "simplefiles-rename-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
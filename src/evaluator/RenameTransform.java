@@ -0,0 +1,198 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The new name of every entry of a rename instruction, compiled once from the parameters of the instruction.
+ * The steps are applied in one pass to the name without its extension, in this order:
+ * find/replace with a regex, the case mode, prefix and suffix, and a sequence number ordered by name or modified date.
+ */
+public class RenameTransform {
+    // Words are separated by spaces, '_', '-', '.' or a lower case letter or digit followed by an upper case letter
+    private static final Pattern WORD_BOUNDARY = Pattern.compile("[\\s_\\-.]+|(?<=[\\p{Ll}0-9])(?=\\p{Lu})");
+
+    private static final Pattern EXTENSION = Pattern.compile("[.][^.]+$");
+    private static final Pattern GROUP_REFERENCE = Pattern.compile("(?<!\\\\)\\$(\\d)");
+
+    private final String mode;
+    private final Pattern find;
+    private final String replace;
+    private final String prefix;
+    private final String suffix;
+    private final String sequence;
+
+    private RenameTransform(String mode, Pattern find, String replace, String prefix, String suffix, String sequence) {
+        this.mode = mode;
+        this.find = find;
+        this.replace = replace;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.sequence = sequence;
+    }
+
+    // True for the parameters that configure the transform rather than filter the entries
+    public static boolean isTransformParameter(String key) {
+        switch (key) {
+            case "mode":
+            case "find":
+            case "replace":
+            case "prefix":
+            case "suffix":
+            case "sequence":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static RenameTransform compile(String instructionName, Map<String, String> parameters) throws SimpleFilesExecutionException {
+        // lower case unless a mode is given, a misspelled mode is an error rather than a silent lower case
+        String mode = parameters.getOrDefault("mode", "lower_case");
+        switch (mode) {
+            case "upper_case":
+            case "lower_case":
+            case "camel_case":
+            case "snake_case":
+            case "keep":
+                break;
+            default:
+                String msg = String.format("Error encountered running instruction: %s. Unknown mode: %s.",
+                        instructionName, mode);
+                throw new SimpleFilesExecutionException(msg);
+        }
+
+        Pattern find = null;
+        String replace = parameters.getOrDefault("replace", "");
+        if (parameters.containsKey("find")) {
+            try {
+                find = Pattern.compile(parameters.get("find"));
+                // checks the group references of the replacement once instead of for every file
+                Matcher reference = GROUP_REFERENCE.matcher(replace);
+                while (reference.find()) {
+                    if (Integer.parseInt(reference.group(1)) > find.matcher("").groupCount()) {
+                        throw new IndexOutOfBoundsException(reference.group());
+                    }
+                }
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                String msg = String.format("Error encountered running instruction: %s. Invalid find or replace: %s.",
+                        instructionName, parameters.get("find"));
+                throw new SimpleFilesExecutionException(msg);
+            }
+        }
+
+        String sequence = parameters.get("sequence");
+        if (sequence != null && !sequence.equals("name") && !sequence.equals("modified_date")) {
+            String msg = String.format("Error encountered running instruction: %s. Unknown sequence: %s.",
+                    instructionName, sequence);
+            throw new SimpleFilesExecutionException(msg);
+        }
+
+        return new RenameTransform(mode, find, replace, parameters.getOrDefault("prefix", ""),
+                parameters.getOrDefault("suffix", ""), sequence);
+    }
+
+    // The new file name for every entry of the list, extension included. The sequence uses the attributes of the entries.
+    public Function<File, String> forFiles(List<FileEntry> entries) {
+        Map<File, String> numbers = sequence == null ? Map.of() : numberFiles(entries);
+        return file -> {
+            String name = file.getName();
+            String extension = getExtension(name);
+            String newName = apply(name.substring(0, name.length() - extension.length()));
+            if (sequence != null) {
+                newName = newName + "_" + numbers.get(file.getAbsoluteFile());
+            }
+            return newName + extension;
+        };
+    }
+
+    // Applies every step except the sequence number to a name without extension
+    public String apply(String name) {
+        if (find != null) {
+            name = find.matcher(name).replaceAll(replace);
+        }
+        switch (mode) {
+            case "upper_case":
+                name = name.toUpperCase();
+                break;
+            case "camel_case":
+                name = toCamelCase(name);
+                break;
+            case "snake_case":
+                name = toSnakeCase(name);
+                break;
+            case "keep":
+                break;
+            default:
+                name = name.toLowerCase();
+        }
+        return prefix + name + suffix;
+    }
+
+    // Numbers the files from 1 in sequence order, zero padded to the same width
+    private Map<File, String> numberFiles(List<FileEntry> entries) {
+        ArrayList<File> ordered = new ArrayList<>(entries.size());
+        HashMap<File, Long> modified = new HashMap<>();
+        for (FileEntry entry : entries) {
+            File file = entry.toFile().getAbsoluteFile();
+            ordered.add(file);
+            modified.put(file, entry.getAttributes().lastModifiedTime().toMillis());
+        }
+        if (sequence.equals("modified_date")) {
+            ordered.sort(Comparator.comparing((File file) -> modified.get(file)).thenComparing(File::getName));
+        } else {
+            ordered.sort(Comparator.comparing(File::getName).thenComparing(File::getPath));
+        }
+
+        int width = String.valueOf(ordered.size()).length();
+        HashMap<File, String> numbers = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            numbers.put(ordered.get(i), String.format("%0" + width + "d", i + 1));
+        }
+        return numbers;
+    }
+
+    private static String toCamelCase(String name) {
+        StringBuilder camel = new StringBuilder(name.length());
+        for (String word : WORD_BOUNDARY.split(name)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (camel.length() == 0) {
+                camel.append(word.toLowerCase(Locale.ROOT));
+            } else {
+                camel.append(word.substring(0, 1).toUpperCase(Locale.ROOT)).append(word.substring(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        return camel.toString();
+    }
+
+    private static String toSnakeCase(String name) {
+        StringBuilder snake = new StringBuilder(name.length() + 4);
+        for (String word : WORD_BOUNDARY.split(name)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (snake.length() > 0) {
+                snake.append('_');
+            }
+            snake.append(word.toLowerCase(Locale.ROOT));
+        }
+        return snake.toString();
+    }
+
+    private static String getExtension(String name) {
+        Matcher extension = EXTENSION.matcher(name);
+        return extension.find() ? name.substring(extension.start()) : "";
+    }
+}
@@ -0,0 +1,19 @@
+package evaluator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Finds the entries of a directory tree that are accepted by a filter
+public interface TreeScanner {
+    // Hands every accepted entry to the sink, in walk order
+    void walk(Path root, Predicate<FileEntry> filter, Consumer<FileEntry> sink) throws IOException;
+
+    default ArrayList<FileEntry> collect(Path root, Predicate<FileEntry> filter) throws IOException {
+        ArrayList<FileEntry> entries = new ArrayList<>();
+        walk(root, filter, entries::add);
+        return entries;
+    }
+}
@@ -0,0 +1,109 @@
+package evaluator;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Walks a directory tree with Files.walkFileTree and filters entries inside the visitor callbacks, using the
+ * attributes handed over by the walk so no extra stat call is needed per entry.
+ * Excluded directories are pruned with SKIP_SUBTREE and never descended into.
+ */
+public class TreeWalker implements TreeScanner {
+    private final boolean includeRoot;
+    private final int maxDepth;
+    private final Set<String> excludedDirectories;
+    private final Path excludedPath;
+    private final boolean skipAcceptedDirectories;
+
+    public TreeWalker(boolean includeRoot, int maxDepth) {
+        this(includeRoot, maxDepth, Collections.emptySet());
+    }
+
+    public TreeWalker(boolean includeRoot, int maxDepth, Set<String> excludedDirectories) {
+        this(includeRoot, maxDepth, excludedDirectories, null, false);
+    }
+
+    private TreeWalker(boolean includeRoot, int maxDepth, Set<String> excludedDirectories, Path excludedPath, boolean skipAcceptedDirectories) {
+        this.includeRoot = includeRoot;
+        this.maxDepth = maxDepth;
+        this.excludedDirectories = excludedDirectories;
+        this.excludedPath = excludedPath;
+        this.skipAcceptedDirectories = skipAcceptedDirectories;
+    }
+
+    // Returns a walker that also prunes the given folder, e.g. the output folder of a group placed inside its target
+    public TreeWalker excluding(Path path) {
+        return new TreeWalker(includeRoot, maxDepth, excludedDirectories, path, skipAcceptedDirectories);
+    }
+
+    // Returns a walker that does not descend into the directories it accepted. Used when accepted directories are
+    // moved away while the walk is still running.
+    public TreeWalker skippingAcceptedDirectories() {
+        return new TreeWalker(includeRoot, maxDepth, excludedDirectories, excludedPath, true);
+    }
+
+    // Walks the tree and hands every entry accepted by the filter to the sink, in walk order
+    public void walk(Path root, Predicate<FileEntry> filter, Consumer<FileEntry> sink) throws IOException {
+        Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), maxDepth, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                boolean isRoot = dir.equals(root);
+                if (!isRoot && isExcluded(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                if ((includeRoot || !isRoot) && accept(new FileEntry(dir, attributes), filter, sink) && skipAcceptedDirectories && !isRoot) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                // directories at the maximum depth are handed over here instead of preVisitDirectory
+                if (attributes.isDirectory() && isExcluded(file)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                accept(new FileEntry(file, attributes), filter, sink);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    public boolean includesRoot() {
+        return includeRoot;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public boolean skipsAcceptedDirectories() {
+        return skipAcceptedDirectories;
+    }
+
+    public boolean isExcluded(Path dir) {
+        if (dir.equals(excludedPath)) {
+            return true;
+        }
+        Path name = dir.getFileName();
+        return name != null && excludedDirectories.contains(name.toString());
+    }
+
+    private static boolean accept(FileEntry entry, Predicate<FileEntry> filter, Consumer<FileEntry> sink) {
+        if (filter.test(entry)) {
+            sink.accept(entry);
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,50 +1,90 @@
 package index;
 
-import errors.SimpleFilesErrorListener;
-import evaluator.Evaluator;
-import libs.Node;
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CommonTokenStream;
-import org.antlr.v4.runtime.Token;
-import org.antlr.v4.runtime.tree.ParseTree;
-import parser.ParseToASTVisitor;
-import parser.SimpleFilesLexer;
-import parser.SimpleFilesParser;
-import staticCheck.StaticCheck;
+import engine.CompiledScript;
+import engine.ExecutionOptions;
+import engine.SimpleFilesEngine;
+import evaluator.AsyncExecutionReporter;
+import evaluator.ConsoleReporter;
+import evaluator.OperationJournal;
+import evaluator.ExecutionReporter;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
 
 public class Main {
     public static void main(String[] args) throws IOException {
-        boolean debug = false; // Are we debugging?
-
-        // Grab input from file
-        SimpleFilesLexer lexer = new SimpleFilesLexer(CharStreams.fromFileName("testcases/var-createtest1"));
-        lexer.addErrorListener(SimpleFilesErrorListener.INSTANCE);
-
-        // Debug only
-        if (debug) {
-            for (Token token : lexer.getAllTokens()) {
-                System.out.println(token);
+        // Optional arguments: [--verbosity=summary|instruction|file] [--format=text|ndjson] [--parallel=N] [--dry-run] [--journal=file|--resume=file|--rollback=file] [--incremental=file] [--incremental-hash] [script]
+        String scriptPath = "testcases/var-createtest1";
+        int parallelism = 1;
+        boolean dryRun = false;
+        Path journalPath = null;
+        boolean resume = false;
+        boolean rollback = false;
+        Path manifestPath = null;
+        boolean hashing = false;
+        ExecutionReporter.Verbosity verbosity = ExecutionReporter.Verbosity.FILE;
+        ConsoleReporter.Format format = ConsoleReporter.Format.TEXT;
+        for (String arg : args) {
+            try {
+                if (arg.startsWith("--verbosity=")) {
+                    verbosity = ExecutionReporter.Verbosity.valueOf(arg.substring("--verbosity=".length()).toUpperCase(Locale.ROOT));
+                } else if (arg.startsWith("--format=")) {
+                    format = ConsoleReporter.Format.valueOf(arg.substring("--format=".length()).toUpperCase(Locale.ROOT));
+                } else if (arg.startsWith("--parallel=")) {
+                    parallelism = Integer.parseInt(arg.substring("--parallel=".length()));
+                    if (parallelism < 1) {
+                        throw new IllegalArgumentException(arg);
+                    }
+                } else if (arg.equals("--dry-run")) {
+                    dryRun = true;
+                } else if (arg.startsWith("--journal=") || arg.startsWith("--resume=") || arg.startsWith("--rollback=")) {
+                    if (journalPath != null) {
+                        throw new IllegalArgumentException(arg);
+                    }
+                    journalPath = Path.of(arg.substring(arg.indexOf('=') + 1));
+                    resume = arg.startsWith("--resume=");
+                    rollback = arg.startsWith("--rollback=");
+                } else if (arg.startsWith("--incremental=")) {
+                    manifestPath = Path.of(arg.substring("--incremental=".length()));
+                } else if (arg.equals("--incremental-hash")) {
+                    hashing = true;
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException(arg);
+                } else {
+                    scriptPath = arg;
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown argument: " + arg);
+                System.err.println("Usage: [--verbosity=summary|instruction|file] [--format=text|ndjson] [--parallel=N] [--dry-run] [--journal=file|--resume=file|--rollback=file] [--incremental=file] [--incremental-hash] [script]");
+                return;
             }
         }
-        lexer.reset();
-
-        // Parse and convert to AST
-        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-        SimpleFilesParser parser = new SimpleFilesParser(tokenStream);
-        parser.addErrorListener(SimpleFilesErrorListener.INSTANCE);
 
-        ParseTree parseTree = parser.program();
-        ParseToASTVisitor parseToASTVisitor = new ParseToASTVisitor();
-        Node parsedProgram = parseTree.accept(parseToASTVisitor);
-
-        // Call the static check
-        StaticCheck staticCheck = new StaticCheck();
-        parsedProgram.accept(null, staticCheck); // Assuming 'null' is an acceptable context
+        // A rollback undoes the moves and renames of the journal instead of running a script
+        if (rollback) {
+            try (AsyncExecutionReporter reporter = new AsyncExecutionReporter(new ConsoleReporter(verbosity, format))) {
+                int undone = OperationJournal.rollback(journalPath, reporter);
+                reporter.summary(String.format("Rolled back %d operation(s) of %s", undone, journalPath));
+            }
+            return;
+        }
 
-        // calling evaluator on ast tree
-        Evaluator evaluator = new Evaluator();
-        parsedProgram.accept(null, evaluator);
+        // Compile the script and run it, every event is printed by the console reporter
+        try (SimpleFilesEngine engine = new SimpleFilesEngine(1);
+             AsyncExecutionReporter reporter = new AsyncExecutionReporter(new ConsoleReporter(verbosity, format))) {
+            CompiledScript script = engine.compile(Path.of(scriptPath));
+            ExecutionOptions options = ExecutionOptions.defaults()
+                    .withParallelism(parallelism)
+                    .withDryRun(dryRun)
+                    .withReporter(reporter);
+            if (journalPath != null) {
+                options = options.withJournal(journalPath, resume);
+            }
+            if (manifestPath != null) {
+                options = options.withManifest(manifestPath, hashing);
+            }
+            engine.execute(script, options);
+        }
     }
 }
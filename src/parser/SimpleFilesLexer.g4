@@ -37,7 +37,7 @@ PARAM_KEY: [a-zA-Z0-9_]+ -> mode(DEFAULT_MODE);
 
 // Mode for setting the parameter value
 mode PARAM_VAL_MODE;
-PARAM_VAL: '"' [a-zA-Z0-9_\-:.&/\\;${} ]+ '"' -> mode(DEFAULT_MODE);
+PARAM_VAL: '"' [a-zA-Z0-9_\-:.&/\\;${} ()[\]+*?^|]+ '"' -> mode(DEFAULT_MODE);
 
 // Mode for list intake. Only supported delimiter is comma.
 // Unused for now
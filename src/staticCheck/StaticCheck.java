@@ -3,6 +3,8 @@ import ast.*;
 import errors.CircularAssignmentException;
 import errors.MemoryAssignmentException;
 import errors.UnknownVariableException;
+import evaluator.ActionHandler;
+import evaluator.ActionHandlerRegistry;
 
 import java.util.AbstractCollection;
 import java.util.HashMap;
@@ -14,6 +16,17 @@ public class StaticCheck implements SimpleFilesVisitor<Object,Object>{
     HashMap<String, Instruction> instructions = new HashMap<>();
     HashMap<String, Condition> conditions = new HashMap<>();
 
+    // The actions a script may use and the parameters each of them accepts
+    private final ActionHandlerRegistry handlers;
+
+    public StaticCheck() {
+        this(ActionHandlerRegistry.defaults());
+    }
+
+    public StaticCheck(ActionHandlerRegistry handlers) {
+        this.handlers = handlers;
+    }
+
 
     public Object visit(Object context, Program p) {
         if (p == null) {
@@ -96,21 +109,32 @@ public class StaticCheck implements SimpleFilesVisitor<Object,Object>{
         if (instructions.containsKey(i.getName())) {
             throw new IllegalArgumentException("Static check failed: Duplicate instruction name '" + i.getName() + "'. Context: " + contextToString(context));
         }
-        switch (i.getAction().getAction()) {
-            case ":create_folder":
-                checkCreateFolderParams(i);
-                break;
-            case ":create_file":
-                checkCreateFileParams(i);
-                break;
-            case ":group":
-                checkGroupParams(i);
-                break;
-            case ":rename":
-                checkRenameParams(i);
-                break;
-            default:
-                throw new IllegalArgumentException("Static check failed: Unknown instruction type '" + i.getName() + "'. Context: " + contextToString(context));
+        ActionHandler handler = handlers.get(i.getAction().getAction());
+        if (handler == null) {
+            throw new IllegalArgumentException("Static check failed: Unknown instruction type '" + i.getName() + "'. Context: " + contextToString(context));
+        }
+        for (Parameter p : i.getParameters()) {
+            if (!handler.getParameters().contains(p.getKey().toLowerCase())) {
+                throw new IllegalArgumentException("Static check failed: Parameter '" + p.getKey() + "' is not accepted by " + handler.getKeyword()
+                        + " instruction '" + i.getName() + "'. Context: " + contextToString(context));
+            }
+        }
+        // actions added by a handler have no type, they only check the parameters they accept
+        if (i.getAction().getType() != null) {
+            switch (i.getAction().getType()) {
+                case CREATE_FOLDER:
+                    checkCreateFolderParams(i);
+                    break;
+                case CREATE_FILE:
+                    checkCreateFileParams(i);
+                    break;
+                case GROUP:
+                    checkGroupParams(i);
+                    break;
+                case RENAME:
+                    checkRenameParams(i);
+                    break;
+            }
         }
         instructions.put(i.getName(), i);
         return null;
@@ -232,15 +256,8 @@ public class StaticCheck implements SimpleFilesVisitor<Object,Object>{
         if (a == null) {
             throw new IllegalArgumentException("Static check failed: Action object is null. Context: " + contextToString(context));
         }
-        String actionType = a.getAction();
-        switch (actionType) {
-            case ":create_folder":
-            case ":create_file":
-            case ":group":
-            case ":rename":
-                break;
-            default:
-                throw new IllegalArgumentException("Static check failed: Action type is not supported. Context: " + contextToString(context));
+        if (handlers.get(a.getAction()) == null) {
+            throw new IllegalArgumentException("Static check failed: Action type is not supported. Context: " + contextToString(context));
         }
         return null;
     }
@@ -252,7 +269,7 @@ public class StaticCheck implements SimpleFilesVisitor<Object,Object>{
         }
 
         String key = p.getKey();
-        String value = p.getValue();
+        String value = p.getRawValue();
 
         if (key == null || key.isEmpty()) {
             throw new IllegalArgumentException("Static check failed: Parameter has an invalid or empty key. Context: " + contextToString(context));
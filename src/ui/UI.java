@@ -5,23 +5,15 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
-import evaluator.Evaluator;
-import org.antlr.v4.runtime.*;
-import org.antlr.v4.runtime.tree.ParseTree;
-import parser.*;
-import staticCheck.StaticCheck;
+import engine.CompiledScript;
+import engine.ExecutionOptions;
+import engine.ExecutionResult;
+import engine.SimpleFilesEngine;
+import evaluator.AsyncExecutionReporter;
+import evaluator.ConsoleReporter;
 import java.io.File;
 import java.util.Arrays;
 import java.util.List;
-import errors.SimpleFilesErrorListener;
-import libs.Node;
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CommonTokenStream;
-import parser.ParseToASTVisitor;
-import parser.SimpleFilesLexer;
-
-import parser.SimpleFilesParser;
-import staticCheck.StaticCheck;
 
 
 public class UI {
@@ -29,6 +21,12 @@ public class UI {
     private JTextArea inputScriptArea;
     private JTextArea resultArea;
     private JButton executeButton;
+    private JCheckBox dryRunCheckBox;
+
+    // Compiles and runs the scripts of the run button
+    private final SimpleFilesEngine engine = new SimpleFilesEngine(1);
+    // One printer thread for every run of the window, runs flush it when they end
+    private final AsyncExecutionReporter reporter = new AsyncExecutionReporter(new ConsoleReporter());
 
     private JButton createFolderButton;
     private JButton createFileButton;
@@ -71,6 +69,8 @@ public class UI {
         resultScrollPane.setPreferredSize(new Dimension(580, 100));
 
         executeButton = new JButton("Run");
+        // A dry run only prints the planned operations to the console
+        dryRunCheckBox = new JCheckBox("Dry run");
 
         // Layout configuration
         frame.setLayout(new GridBagLayout());
@@ -97,9 +97,12 @@ public class UI {
         frame.add(inputScrollPane, gbc);
 
 // Execute Button
+        JPanel runPanel = new JPanel(new BorderLayout());
+        runPanel.add(executeButton, BorderLayout.CENTER);
+        runPanel.add(dryRunCheckBox, BorderLayout.EAST);
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.weighty = 0;
-        frame.add(executeButton, gbc);
+        frame.add(runPanel, gbc);
 
 // Result Scroll Pane
         gbc.fill = GridBagConstraints.BOTH;
@@ -118,25 +121,20 @@ public class UI {
         String input = inputScriptArea.getText();
         StringBuilder result = new StringBuilder();
 
-
-            // Lexer and parser setup
-            SimpleFilesLexer lexer = new SimpleFilesLexer(CharStreams.fromString(input));
-            lexer.addErrorListener(SimpleFilesErrorListener.INSTANCE);
-            CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-            SimpleFilesParser parser = new SimpleFilesParser(tokenStream);
-            ParseTree parseTree = parser.program();
-            ParseToASTVisitor parseToASTVisitor = new ParseToASTVisitor();
-            Node parsedProgram = parseTree.accept(parseToASTVisitor);
-
-            // Static check
-            try {
-            StaticCheck staticCheck = new StaticCheck();
-            parsedProgram.accept(null, staticCheck);
-
-            // Evaluation
-            Evaluator evaluator = new Evaluator();
-            parsedProgram.accept(null, evaluator);
-            result.append("Test executed successfully.");
+        // Compile and run, every run starts with empty memory
+        try {
+            CompiledScript script = engine.compile(input);
+            ExecutionOptions options = ExecutionOptions.defaults()
+                    .withDryRun(dryRunCheckBox.isSelected())
+                    .withReporter(reporter);
+            ExecutionResult executionResult = engine.execute(script, options);
+            if (dryRunCheckBox.isSelected()) {
+                result.append(String.format("Dry run planned %d operation(s), nothing was changed.", executionResult.getPlannedOperations().size()));
+            } else if (executionResult.isSuccessful()) {
+                result.append("Test executed successfully.");
+            } else {
+                result.append("Test execution failed: ").append(String.join("\n", executionResult.getErrors()));
+            }
 
         } catch (Exception e) {
             result.append("Test execution failed: ").append(e.getMessage());
@@ -0,0 +1,253 @@
+package engine;
+
+import ast.Condition;
+import ast.Instruction;
+import errors.SimpleFilesExecutionException;
+import evaluator.ActionHandler;
+import evaluator.ExecutionPlan;
+import evaluator.InstructionResult;
+import evaluator.InstructionRunner;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimpleFilesEngineTest {
+
+    @TempDir
+    File rootDirectory;
+
+    SimpleFilesEngine engine;
+
+    @BeforeEach
+    void initializationBeforeEngineTest() {
+        engine = new SimpleFilesEngine(4);
+    }
+
+    @AfterEach
+    void cleanUpAfterEachTest() {
+        engine.close();
+    }
+
+    private String path(String folder) {
+        return new File(rootDirectory, folder).getAbsolutePath().replace('\\', '/');
+    }
+
+    // Creates three text files in start and copies them to end
+    private String copyScript(String folder) {
+        return """
+                BEGIN
+
+                INST create_files -> :create_file
+                --> path = \"""" + path(folder + "/start") + "\"" + """
+                --> name = "file_${ITERATOR}.txt"
+                --> count = "3";
+
+                INST copy_files -> :group
+                --> group_target = "create_files"
+                --> path = \"""" + path(folder + "/end") + "\"" + """
+                --> mode = "copy";
+
+                EXEC_INST create_files;
+                EXEC_INST copy_files;
+
+                END
+                """;
+    }
+
+    // An action the language does not have, records the instructions it runs
+    private static class TouchHandler implements ActionHandler {
+        private final List<String> touched = new ArrayList<>();
+
+        @Override
+        public String getKeyword() {
+            return ":touch";
+        }
+
+        @Override
+        public Set<String> getParameters() {
+            return Set.of("path");
+        }
+
+        @Override
+        public void execute(InstructionRunner runner, Instruction instruction, Condition condition) {
+            touched.add(instruction.getName());
+        }
+    }
+
+    private static final String TOUCH_SCRIPT = """
+            BEGIN
+
+            INST touch_files -> :touch
+            --> path = "somewhere";
+
+            EXEC_INST touch_files;
+
+            END
+            """;
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void executeReturnsResultOfEveryInstruction() throws IOException {
+            CompiledScript script = engine.compile(copyScript("run"));
+            ExecutionResult result = engine.execute(script, ExecutionOptions.defaults());
+
+            assertTrue(result.isSuccessful());
+            assertEquals(2, result.getExecutedCount());
+            List<InstructionResult> instructions = result.getInstructions();
+            assertEquals("create_files", instructions.get(0).getInstruction());
+            assertEquals(InstructionResult.Status.SUCCEEDED, instructions.get(0).getStatus());
+            assertEquals(3, instructions.get(0).getEntries());
+            assertEquals("copy_files", instructions.get(1).getInstruction());
+            assertEquals(3, instructions.get(1).getEntries());
+            assertTrue(result.getErrors().isEmpty());
+            assertEquals("Executed 2 instruction(s), 0 failed", result.getSummaries().get(0));
+            assertTrue(new File(rootDirectory, "run/end/file_2.txt").isFile());
+        }
+
+        @Test
+        void copiedBytesAreCounted() throws IOException {
+            File start = new File(rootDirectory, "bytes/start");
+            assertTrue(start.mkdirs());
+            Files.writeString(start.toPath().resolve("apple.txt"), "apple");
+            Files.writeString(start.toPath().resolve("banana.txt"), "banana");
+            CompiledScript script = engine.compile("""
+                    BEGIN
+
+                    INST copy_fruit -> :group
+                    --> group_target = \"""" + path("bytes/start") + "\"" + """
+                    --> path = \"""" + path("bytes/end") + "\"" + """
+                    --> mode = "copy";
+
+                    EXEC_INST copy_fruit;
+
+                    END
+                    """);
+
+            ExecutionResult result = engine.execute(script, ExecutionOptions.defaults());
+
+            assertEquals(2, result.getEntries());
+            assertEquals(11, result.getBytes());
+        }
+
+        @Test
+        void dryRunReturnsPlannedOperations() throws IOException {
+            ExecutionResult result = engine.execute(engine.compile(copyScript("dry")), ExecutionOptions.defaults().withDryRun(true));
+
+            long copies = result.getPlannedOperations().stream()
+                    .filter(operation -> operation.getOperation() == ExecutionPlan.Operation.COPY).count();
+            assertEquals(3, copies);
+            assertFalse(new File(rootDirectory, "dry").exists());
+        }
+
+        @Test
+        void registeredHandlerAddsAnAction() throws IOException {
+            TouchHandler handler = new TouchHandler();
+            engine.registerHandler(handler);
+
+            ExecutionResult result = engine.execute(engine.compile(TOUCH_SCRIPT), ExecutionOptions.defaults());
+
+            assertTrue(result.isSuccessful());
+            assertEquals(List.of("touch_files"), handler.touched);
+        }
+
+        @Test
+        void compiledScriptRunsManyTimesAtTheSameTime() {
+            ArrayList<CompletableFuture<ExecutionResult>> runs = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                runs.add(engine.executeAsync(engine.compile(copyScript("async_" + i)), ExecutionOptions.defaults().withParallelism(2)));
+            }
+
+            for (int i = 0; i < runs.size(); i++) {
+                ExecutionResult result = runs.get(i).join();
+                assertTrue(result.isSuccessful());
+                assertEquals(6, result.getEntries());
+                assertEquals(3, new File(rootDirectory, "async_" + i + "/end").list().length);
+            }
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void syntaxErrorFailsCompile() {
+            assertThrows(SimpleFilesExecutionException.class, () -> engine.compile("BEGIN INST broken END"));
+        }
+
+        @Test
+        void failedInstructionIsInResult() throws IOException {
+            CompiledScript script = engine.compile("""
+                    BEGIN
+
+                    INST rename_missing -> :rename
+                    --> path = "not_an_instruction_or_folder"
+                    --> mode = "upper_case";
+
+                    EXEC_INST rename_missing;
+
+                    END
+                    """);
+
+            ExecutionResult result = engine.execute(script, ExecutionOptions.defaults());
+
+            assertFalse(result.isSuccessful());
+            assertEquals(1, result.getFailedCount());
+            InstructionResult failed = result.getInstructions().get(0);
+            assertEquals(InstructionResult.Status.FAILED, failed.getStatus());
+            assertEquals(0, failed.getEntries());
+            assertFalse(failed.getErrors().isEmpty());
+        }
+
+        @Test
+        void fileErrorsAreInResultWithoutReporter() throws IOException {
+            assertTrue(new File(rootDirectory, "existing/folder_0").mkdirs());
+            CompiledScript script = engine.compile("""
+                    BEGIN
+
+                    INST create_folders -> :create_folder
+                    --> path = \"""" + path("existing") + "\"" + """
+                    --> name = "folder_${ITERATOR}"
+                    --> count = "2";
+
+                    EXEC_INST create_folders;
+
+                    END
+                    """);
+
+            ExecutionResult result = engine.execute(script, ExecutionOptions.defaults());
+
+            assertEquals(1, result.getErrors().size());
+            assertEquals(1, result.getInstructions().get(0).getErrors().size());
+        }
+
+        @Test
+        void actionWithoutHandlerFailsCompile() {
+            assertThrows(SimpleFilesExecutionException.class, () -> engine.compile(TOUCH_SCRIPT));
+        }
+
+        @Test
+        void parameterTheActionDoesNotAcceptFailsCompile() {
+            engine.registerHandler(new TouchHandler());
+
+            SimpleFilesExecutionException exception = assertThrows(SimpleFilesExecutionException.class,
+                    () -> engine.compile(TOUCH_SCRIPT.replace("--> path = \"somewhere\";", "--> path = \"somewhere\"\n--> mode = \"copy\";")));
+            assertTrue(exception.getMessage().contains("Parameter 'mode' is not accepted by :touch"));
+        }
+
+        @Test
+        void parallelismMustBePositive() {
+            assertThrows(IllegalArgumentException.class, () -> ExecutionOptions.defaults().withParallelism(0));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package evaluator;
+
+import ast.Action;
+import ast.Condition;
+import ast.Instruction;
+import common.ActionType;
+import errors.SimpleFilesErrorListener;
+import libs.Node;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.junit.jupiter.api.*;
+import parser.ParseToASTVisitor;
+import parser.SimpleFilesLexer;
+import parser.SimpleFilesParser;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActionHandlerRegistryTest {
+
+    // Records the instructions it is asked to run instead of running them
+    private static class RecordingHandler implements ActionHandler {
+        private final ArrayList<String> executed = new ArrayList<>();
+
+        private final String keyword;
+
+        RecordingHandler(String keyword) {
+            this.keyword = keyword;
+        }
+
+        @Override
+        public String getKeyword() {
+            return keyword;
+        }
+
+        @Override
+        public Set<String> getParameters() {
+            return Set.of("group_target", "path", "mode", "extension");
+        }
+
+        @Override
+        public void execute(InstructionRunner runner, Instruction instruction, Condition condition) {
+            executed.add(instruction.getName() + (condition == null ? "" : ":" + condition.getName()));
+        }
+    }
+
+    private static Node parse(String input) {
+        SimpleFilesLexer lexer = new SimpleFilesLexer(CharStreams.fromString(input));
+        lexer.addErrorListener(SimpleFilesErrorListener.INSTANCE);
+        SimpleFilesParser parser = new SimpleFilesParser(new CommonTokenStream(lexer));
+        return parser.program().accept(new ParseToASTVisitor());
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void actionTypeIsResolvedWhenParsed() {
+            assertEquals(ActionType.CREATE_FILE, new Action(":create_file").getType());
+            assertEquals(ActionType.RENAME, new Action(":rename").getType());
+        }
+
+        @Test
+        void defaultsHandleEveryAction() {
+            ActionHandlerRegistry registry = ActionHandlerRegistry.defaults();
+
+            for (ActionType type : ActionType.values()) {
+                assertEquals(type.getKeyword(), registry.get(type.getKeyword()).getKeyword());
+            }
+            assertTrue(registry.getIgnoredParameters(":group").contains("name"));
+            assertFalse(registry.getIgnoredParameters(":group").contains("extension"));
+            assertTrue(registry.getIgnoredParameters(":create_file").contains("group_target"));
+            assertFalse(registry.getIgnoredParameters(":rename").contains("path"));
+        }
+
+        @Test
+        void ignoredParametersIncludeParametersOfRegisteredActions() {
+            ActionHandlerRegistry registry = ActionHandlerRegistry.defaults();
+            registry.register(new RecordingHandler(":archive") {
+                @Override
+                public Set<String> getParameters() {
+                    return Set.of("path", "archive_format");
+                }
+            });
+            IgnoreList ignoreList = new IgnoreList();
+
+            registry.declareIgnoredParameters(ignoreList);
+
+            assertTrue(ignoreList.shouldIgnore(":group", "archive_format"));
+            assertTrue(ignoreList.shouldIgnore(":archive", "group_target"));
+            assertFalse(ignoreList.shouldIgnore(":archive", "path"));
+        }
+
+        @Test
+        void registeredHandlerRunsTheInstructions() {
+            RecordingHandler handler = new RecordingHandler(":group");
+            Evaluator evaluator = new Evaluator(new ConsoleReporter());
+            evaluator.registerHandler(handler);
+
+            parse("""
+                    BEGIN
+                    INST group_test -> :group
+                    --> group_target = "somewhere"
+                    --> path = "elsewhere"
+                    --> mode = "copy";
+                    COND only_text -> :condition
+                    --> extension = "txt";
+                    EXEC_INST group_test;
+                    EXEC_COND_MAP group_test WITH_COND only_text;
+                    END
+                    """).accept(null, evaluator);
+
+            assertEquals(2, handler.executed.size());
+            assertEquals("group_test", handler.executed.get(0));
+            assertEquals("group_test:only_text", handler.executed.get(1));
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void unknownActionHasNoHandler() {
+            Action action = new Action(":delete");
+
+            assertNull(action.getType());
+            assertNull(ActionHandlerRegistry.defaults().get(action.getAction()));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package evaluator;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CopyBackendTest {
+
+    @TempDir
+    File rootDirectory;
+
+    File source;
+    File folder;
+    File outputDirectory;
+
+    @BeforeEach
+    void initializationBeforeCopyBackendTest() throws IOException {
+        source = new File(rootDirectory, "fruit_apple.txt");
+        folder = new File(rootDirectory, "fruit_folder");
+        outputDirectory = new File(rootDirectory, "output");
+        if (!folder.mkdirs() || !outputDirectory.mkdirs()) {
+            fail("Error creating files for copy backend tests");
+        }
+        byte[] content = new byte[100000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(source.toPath(), content);
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void transferCopiesContentAndCountsBytes() throws IOException {
+            CopyBackend copyBackend = new CopyBackend(CopyBackend.Strategy.TRANSFER);
+            Path target = new File(outputDirectory, "fruit_apple.txt").toPath();
+
+            assertEquals(CopyBackend.Strategy.TRANSFER, copyBackend.copy(FileEntry.read(source.toPath()), target));
+            assertArrayEquals(Files.readAllBytes(source.toPath()), Files.readAllBytes(target));
+            assertEquals(1, copyBackend.getFileCount(CopyBackend.Strategy.TRANSFER));
+            assertEquals(100000, copyBackend.getByteCount(CopyBackend.Strategy.TRANSFER));
+            assertEquals("transfer 1 (100000 bytes)", copyBackend.describeMetrics());
+        }
+
+        @Test
+        void transferReplacesLargerExistingFile() throws IOException {
+            Path target = new File(outputDirectory, "fruit_apple.txt").toPath();
+            Files.write(target, new byte[200000]);
+
+            new CopyBackend(CopyBackend.Strategy.TRANSFER).copy(FileEntry.read(source.toPath()), target);
+
+            assertArrayEquals(Files.readAllBytes(source.toPath()), Files.readAllBytes(target));
+        }
+
+        @Test
+        void foldersAreCopiedWithFilesCopy() throws IOException {
+            CopyBackend copyBackend = new CopyBackend(CopyBackend.Strategy.TRANSFER);
+            Path target = new File(outputDirectory, "fruit_folder").toPath();
+
+            assertEquals(CopyBackend.Strategy.STREAM, copyBackend.copy(FileEntry.read(folder.toPath()), target));
+            assertTrue(Files.isDirectory(target));
+        }
+
+        @Test
+        void existingFolderWithContentCountsAsCopied() throws IOException {
+            // the content of a folder can be copied before the folder itself
+            File target = new File(outputDirectory, "fruit_folder");
+            assertTrue(target.mkdirs());
+            Files.write(new File(target, "fruit_apple.txt").toPath(), new byte[10]);
+
+            new CopyBackend(CopyBackend.Strategy.TRANSFER).copy(FileEntry.read(folder.toPath()), target.toPath());
+
+            assertTrue(target.isDirectory());
+            assertTrue(new File(target, "fruit_apple.txt").isFile());
+        }
+
+        @Test
+        void failedCloneFallsBackToTransfer() throws IOException {
+            // Clone from a file system that does not support it, or one that does. Either way the copy succeeds.
+            CopyBackend copyBackend = new CopyBackend(CopyBackend.Strategy.REFLINK);
+            Path target = new File(outputDirectory, "fruit_apple.txt").toPath();
+
+            copyBackend.copy(FileEntry.read(source.toPath()), target);
+
+            assertArrayEquals(Files.readAllBytes(source.toPath()), Files.readAllBytes(target));
+            assertEquals(1, copyBackend.getFileCount(CopyBackend.Strategy.REFLINK) + copyBackend.getFileCount(CopyBackend.Strategy.TRANSFER));
+        }
+
+        @Test
+        void namedBackends() {
+            assertNotNull(CopyBackend.forName("reflink"));
+            assertNotNull(CopyBackend.forName("stream"));
+        }
+
+        @Test
+        void autoCopiesWithTransfer() throws IOException {
+            CopyBackend copyBackend = CopyBackend.forName("auto");
+            Path target = new File(outputDirectory, "fruit_apple.txt").toPath();
+
+            copyBackend.copy(FileEntry.read(source.toPath()), target);
+
+            assertArrayEquals(Files.readAllBytes(source.toPath()), Files.readAllBytes(target));
+            assertEquals(1, copyBackend.getFileCount(CopyBackend.Strategy.TRANSFER));
+            assertEquals(0, copyBackend.getFileCount(CopyBackend.Strategy.REFLINK));
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void unknownBackendName() {
+            assertNull(CopyBackend.forName("teleport"));
+        }
+
+        @Test
+        void missingSourceIsReported() throws IOException {
+            FileEntry entry = FileEntry.read(source.toPath());
+            Files.delete(source.toPath());
+
+            assertThrows(IOException.class, () -> new CopyBackend(CopyBackend.Strategy.TRANSFER).copy(entry, new File(outputDirectory, "fruit_apple.txt").toPath()));
+        }
+    }
+}
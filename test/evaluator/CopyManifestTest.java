@@ -0,0 +1,166 @@
+package evaluator;
+
+import ast.Action;
+import ast.Instruction;
+import ast.Parameter;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CopyManifestTest {
+
+    @TempDir
+    File rootDirectory;
+
+    Path source;
+    Path destination;
+    Path manifestPath;
+
+    @BeforeEach
+    void initializationBeforeCopyManifestTest() throws IOException {
+        source = Files.writeString(rootDirectory.toPath().resolve("apple.txt"), "apple");
+        destination = rootDirectory.toPath().resolve("apple_copy.txt");
+        manifestPath = rootDirectory.toPath().resolve("copies.manifest");
+    }
+
+    // Copies the source and records it, like a group copy does
+    private void copyAndRecord(CopyManifest manifest) throws IOException {
+        Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING);
+        manifest.record(FileEntry.read(source), destination);
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void unchangedCopyIsInSyncAfterReload() throws IOException {
+            CopyManifest manifest = CopyManifest.load(manifestPath, false);
+            assertFalse(manifest.isInSync(FileEntry.read(source), destination));
+            copyAndRecord(manifest);
+            manifest.save();
+
+            assertTrue(CopyManifest.load(manifestPath, false).isInSync(FileEntry.read(source), destination));
+        }
+
+        @Test
+        void touchedSourceIsInSyncWithHashing() throws IOException {
+            CopyManifest manifest = CopyManifest.load(manifestPath, true);
+            copyAndRecord(manifest);
+            Files.setLastModifiedTime(source, FileTime.fromMillis(0));
+
+            assertTrue(manifest.isInSync(FileEntry.read(source), destination));
+        }
+
+        @Test
+        void secondGroupCopySkipsUnchangedFiles() throws IOException {
+            Path input = Files.createDirectory(rootDirectory.toPath().resolve("input"));
+            Path apple = Files.writeString(input.resolve("apple.txt"), "apple");
+            Path output = rootDirectory.toPath().resolve("output");
+
+            Instruction instruction = new Instruction("group_copy");
+            instruction.setAction(new Action(":group"));
+            instruction.addParameter(new Parameter("group_target", input.toString()));
+            instruction.addParameter(new Parameter("path", output.toString()));
+            instruction.addParameter(new Parameter("mode", "copy"));
+
+            CopyManifest manifest = CopyManifest.load(manifestPath, false);
+            ExecutionContext context = new ExecutionContext(null, null, manifest);
+            InstructionRunner runner = new InstructionRunner(new ConsoleReporter(), context);
+            try {
+                runner.runGroupAction(instruction, null);
+                context.getMemory().clear();
+
+                // same size and modified date, so the manifest can not tell the content changed
+                FileTime modified = Files.getLastModifiedTime(apple);
+                Files.writeString(apple, "APPLE");
+                Files.setLastModifiedTime(apple, modified);
+
+                runner.runGroupAction(instruction, null);
+            } catch (Exception e) {
+                fail(String.format("Unexpected exception thrown: %s", e.getMessage()));
+            }
+
+            assertEquals("apple", Files.readString(output.resolve("apple.txt")));
+            assertEquals(1, context.getMemory().getGroupedFiles("group_copy").size());
+        }
+        @Test
+        void secondGroupCopyKeepsFolders() throws IOException {
+            Path input = Files.createDirectories(rootDirectory.toPath().resolve("input/fruit"));
+            Files.writeString(input.resolve("apple.txt"), "apple");
+            Path output = rootDirectory.toPath().resolve("output");
+
+            Instruction instruction = new Instruction("group_copy");
+            instruction.setAction(new Action(":group"));
+            instruction.addParameter(new Parameter("group_target", input.getParent().toString()));
+            instruction.addParameter(new Parameter("path", output.toString()));
+            instruction.addParameter(new Parameter("mode", "copy"));
+
+            CopyManifest manifest = CopyManifest.load(manifestPath, false);
+            ExecutionContext context = new ExecutionContext(null, null, manifest);
+            InstructionRunner runner = new InstructionRunner(new ConsoleReporter(), context);
+            try {
+                runner.runGroupAction(instruction, null);
+                context.getMemory().clear();
+                // the destination folder is not empty on the second run
+                runner.runGroupAction(instruction, null);
+            } catch (Exception e) {
+                fail(String.format("Unexpected exception thrown: %s", e.getMessage()));
+            }
+
+            assertTrue(manifest.isInSync(FileEntry.read(input), output.resolve("fruit")));
+            assertEquals(2, context.getMemory().getGroupedFiles("group_copy").size());
+        }
+
+        @Test
+        void recordsOfDeletedSourcesAreDropped() throws IOException {
+            CopyManifest manifest = CopyManifest.load(manifestPath, false);
+            copyAndRecord(manifest);
+            manifest.save();
+            assertEquals(1, Files.readAllLines(manifestPath).size());
+
+            Files.delete(source);
+            manifest.save();
+
+            assertTrue(Files.readAllLines(manifestPath).isEmpty());
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void changedSourceIsNotInSync() throws IOException {
+            CopyManifest manifest = CopyManifest.load(manifestPath, false);
+            copyAndRecord(manifest);
+            Files.writeString(source, "apple pie");
+
+            assertFalse(manifest.isInSync(FileEntry.read(source), destination));
+        }
+
+        @Test
+        void changedDestinationIsNotInSync() throws IOException {
+            CopyManifest manifest = CopyManifest.load(manifestPath, false);
+            copyAndRecord(manifest);
+            Files.writeString(destination, "pear");
+
+            assertFalse(manifest.isInSync(FileEntry.read(source), destination));
+            Files.delete(destination);
+            assertFalse(manifest.isInSync(FileEntry.read(source), destination));
+        }
+
+        @Test
+        void damagedRecordsAreIgnored() throws IOException {
+            Files.writeString(manifestPath, source + "\tnot a size\t0\t-\t" + destination + "\t5\t0\ncut off");
+
+            assertFalse(CopyManifest.load(manifestPath, false).isInSync(FileEntry.read(source), destination));
+        }
+    }
+}
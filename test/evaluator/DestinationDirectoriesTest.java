@@ -0,0 +1,81 @@
+package evaluator;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DestinationDirectoriesTest {
+
+    @TempDir
+    File rootDirectory;
+
+    File outputDirectory;
+
+    @BeforeEach
+    void initializationBeforeDestinationDirectoriesTest() {
+        outputDirectory = new File(rootDirectory, "output");
+        if (!outputDirectory.mkdirs()) {
+            fail("Error creating folders for destination directories tests");
+        }
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void ensureCreatesMissingFolders() throws IOException {
+            Path folder = outputDirectory.toPath().resolve("fruit/apple");
+
+            DestinationDirectories destinations = new DestinationDirectories(outputDirectory.toPath());
+            destinations.ensure(folder);
+            destinations.ensure(folder);
+
+            assertTrue(Files.isDirectory(folder));
+        }
+
+        @Test
+        void ensureTrustsTheCache() throws IOException {
+            Path folder = outputDirectory.toPath().resolve("fruit");
+
+            DestinationDirectories destinations = new DestinationDirectories(outputDirectory.toPath());
+            destinations.ensure(folder);
+            Files.delete(folder);
+            destinations.ensure(folder);
+
+            assertFalse(Files.exists(folder));
+        }
+
+        @Test
+        void prepareCreatesFoldersTopDown() throws IOException {
+            Path output = outputDirectory.toPath();
+            List<Path> folders = List.of(output.resolve("a/b/c"), output.resolve("a/d"), output.resolve("e"), output);
+
+            new DestinationDirectories(output).prepare(folders, 4);
+
+            assertTrue(Files.isDirectory(output.resolve("a/b/c")));
+            assertTrue(Files.isDirectory(output.resolve("a/d")));
+            assertTrue(Files.isDirectory(output.resolve("e")));
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void prepareFailsOnFileInTheWay() throws IOException {
+            Path output = outputDirectory.toPath();
+            Files.write(output.resolve("a"), new byte[1]);
+
+            DestinationDirectories destinations = new DestinationDirectories(output);
+            assertThrows(IOException.class, () -> destinations.prepare(List.of(output.resolve("a/b")), 2));
+            assertThrows(IOException.class, () -> destinations.ensure(output.resolve("a/b")));
+        }
+    }
+}
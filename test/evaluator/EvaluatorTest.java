@@ -1074,6 +1074,80 @@ public class EvaluatorTest {
 
     //endregion
 
+    //region parallelTests
+
+    @Test
+    void parallelExecutionsKeepDependentOrder() {
+
+        String startingPath = "/test/evaluator/Examples/ExampleParallel";
+
+        File dirPath = new File(pathToProject + startingPath);
+        if (dirPath.exists()){
+            cleanFolder(pathToProject + startingPath);
+        }
+
+        // The two creates are independent, the group and rename depend on the create before them
+        String input = """
+                BEGIN
+
+                INST create_left -> :create_file
+                --> path = \"""" + pathToProject + startingPath + "/left\"" + """
+                --> name = "left_${ITERATOR}.txt"
+                --> count = "20";
+
+                INST create_right -> :create_folder
+                --> path = \"""" + pathToProject + startingPath + "/right\"" + """
+                --> name = "right_${ITERATOR}"
+                --> count = "20";
+
+                INST group_left -> :group
+                --> group_target = "create_left"
+                --> path = \"""" + pathToProject + startingPath + "/grouped\"" + """
+                --> mode = "move";
+
+                INST rename_grouped -> :rename
+                --> path = "group_left"
+                --> mode = "upper_case";
+
+                EXEC_INST create_left;
+                EXEC_INST create_right;
+                EXEC_INST group_left;
+                EXEC_INST rename_grouped;
+
+                END
+                """;
+
+        SimpleFilesLexer lexer = new SimpleFilesLexer(CharStreams.fromString(input));
+        lexer.addErrorListener(SimpleFilesErrorListener.INSTANCE);
+        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
+        SimpleFilesParser parser = new SimpleFilesParser(tokenStream);
+
+        ParseTree parseTree = parser.program();
+        ParseToASTVisitor parseToASTVisitor = new ParseToASTVisitor();
+        Node parsedProgram = parseTree.accept(parseToASTVisitor);
+
+        // calling evaluator on ast tree with four executions at a time
+        Evaluator evaluator = new Evaluator(new ConsoleReporter(), 4);
+        parsedProgram.accept(null, evaluator);
+
+        String[] left = new File(pathToProject + startingPath + "/left").list();
+        String[] right = new File(pathToProject + startingPath + "/right").list();
+        String[] grouped = new File(pathToProject + startingPath + "/GROUPED").list();
+
+        assertNotNull(left);
+        assertNotNull(right);
+        assertNotNull(grouped);
+        assertEquals(0, left.length);
+        assertEquals(20, right.length);
+        assertEquals(20, grouped.length);
+        assertTrue(Arrays.asList(grouped).contains("LEFT_19.txt"));
+        assertEquals(0, evaluator.failedInstructions.get());
+
+        cleanFolder(pathToProject + startingPath);
+    }
+
+    //endregion
+
 
 
     // For local testing.
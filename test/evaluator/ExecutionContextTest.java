@@ -0,0 +1,119 @@
+package evaluator;
+
+import errors.SimpleFilesErrorListener;
+import errors.UnknownVariableException;
+import libs.Node;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import parser.ParseToASTVisitor;
+import parser.SimpleFilesLexer;
+import parser.SimpleFilesParser;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutionContextTest {
+
+    @TempDir
+    File rootDirectory;
+
+    private static Node parse(String input) {
+        SimpleFilesLexer lexer = new SimpleFilesLexer(CharStreams.fromString(input));
+        lexer.addErrorListener(SimpleFilesErrorListener.INSTANCE);
+        SimpleFilesParser parser = new SimpleFilesParser(new CommonTokenStream(lexer));
+        return parser.program().accept(new ParseToASTVisitor());
+    }
+
+    // Creates folders named after a variable in a folder of its own
+    private Node createScript(String folder, String prefix) {
+        return parse("""
+                BEGIN
+
+                VAR PREFIX = \"""" + prefix + "\"" + """
+                ;
+
+                INST create_folders -> :create_folder
+                --> path = \"""" + new File(rootDirectory, folder).getAbsolutePath().replace('\\', '/') + "\"" + """
+                --> name = "${PREFIX}_${ITERATOR}"
+                --> count = "3";
+
+                EXEC_INST create_folders;
+
+                END
+                """);
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void contextsDoNotShareMemory() {
+            ExecutionContext first = new ExecutionContext();
+            ExecutionContext second = new ExecutionContext();
+
+            createScript("first", "left").accept(null, new Evaluator(new ConsoleReporter(), 1, first));
+
+            assertEquals("left", first.getMemory().getVariableValue("PREFIX"));
+            assertTrue(first.getMemory().hasGroupedFilesFromInstruction("create_folders"));
+            assertFalse(second.getMemory().hasGroupedFilesFromInstruction("create_folders"));
+            assertThrows(UnknownVariableException.class, () -> second.getMemory().getVariableValue("PREFIX"));
+        }
+
+        @Test
+        void scriptsRunAtTheSameTimeWithTheirOwnVariables() {
+            CompletableFuture<?>[] runs = new CompletableFuture[4];
+            for (int i = 0; i < runs.length; i++) {
+                Node program = createScript("run_" + i, "run" + i);
+                runs[i] = CompletableFuture.runAsync(() ->
+                        program.accept(null, new Evaluator(new ConsoleReporter(), 2, new ExecutionContext())));
+            }
+            CompletableFuture.allOf(runs).join();
+
+            for (int i = 0; i < runs.length; i++) {
+                for (int j = 0; j < 3; j++) {
+                    assertTrue(new File(rootDirectory, "run_" + i + "/run" + i + "_" + j).isDirectory());
+                }
+            }
+        }
+
+        @Test
+        void dryRunContextHasNoJournal() throws Exception {
+            try (OperationJournal journal = OperationJournal.create(rootDirectory.toPath().resolve("run.journal"))) {
+                assertNull(new ExecutionContext(new ExecutionPlan(), journal, null).getJournal());
+                assertSame(journal, new ExecutionContext(null, journal, null).getJournal());
+            }
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void variableOfAnotherContextIsUnknown() {
+            ExecutionContext first = new ExecutionContext();
+            createScript("first", "left").accept(null, new Evaluator(new ConsoleReporter(), 1, first));
+
+            Node program = parse("""
+                    BEGIN
+
+                    INST create_folders -> :create_folder
+                    --> path = \"""" + new File(rootDirectory, "second").getAbsolutePath().replace('\\', '/') + "\"" + """
+                    --> name = "${PREFIX}_${ITERATOR}"
+                    --> count = "1";
+
+                    EXEC_INST create_folders;
+
+                    END
+                    """);
+            ExecutionContext second = new ExecutionContext();
+            program.accept(null, new Evaluator(new ConsoleReporter(), 1, second));
+
+            assertFalse(new File(rootDirectory, "second/left_0").exists());
+            assertFalse(second.getMemory().hasGroupedFilesFromInstruction("create_folders"));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package evaluator;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutionPlanTest {
+
+    @TempDir
+    File rootDirectory;
+
+    ExecutionPlan plan;
+
+    @BeforeEach
+    void initializationBeforeExecutionPlanTest() {
+        plan = new ExecutionPlan();
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void plannedEntriesAreSeenButNotCreated() {
+            Path folder = rootDirectory.toPath().resolve("fruit");
+            plan.createFolder("create_test", folder);
+            plan.createFile("create_test", folder.resolve("apple.txt"), 10);
+
+            assertTrue(plan.isDirectory(folder));
+            assertTrue(plan.exists(folder.resolve("apple.txt")));
+            assertFalse(Files.exists(folder));
+            assertEquals(10, plan.getOperations().get(1).getBytes());
+        }
+
+        @Test
+        void movingAFolderTakesItsPlannedContent() {
+            Path folder = rootDirectory.toPath().resolve("fruit");
+            Path output = rootDirectory.toPath().resolve("output/fruit");
+            plan.createFolder("create_test", folder);
+            plan.createFile("create_test", folder.resolve("apple.txt"), 10);
+
+            plan.move("group_test", plan.read(folder), output, false);
+
+            assertFalse(plan.exists(folder));
+            assertFalse(plan.exists(folder.resolve("apple.txt")));
+            assertTrue(plan.exists(output.resolve("apple.txt")));
+            assertEquals(10, plan.getOperations().get(2).getBytes());
+        }
+
+        @Test
+        void copyKeepsTheSourceAndRenameWritesNothing() throws IOException {
+            Path apple = Files.write(rootDirectory.toPath().resolve("apple.txt"), new byte[5]);
+
+            plan.copy("group_test", plan.read(apple), rootDirectory.toPath().resolve("copy/apple.txt"));
+            plan.rename("rename_test", apple.toFile(), rootDirectory.toPath().resolve("APPLE.txt").toFile());
+
+            assertTrue(plan.exists(rootDirectory.toPath().resolve("copy/apple.txt")));
+            assertTrue(plan.isRemoved(apple));
+            assertTrue(Files.exists(apple));
+            assertEquals(5, plan.getOperations().get(0).getBytes());
+            assertEquals(0, plan.getOperations().get(1).getBytes());
+        }
+
+        @Test
+        void totalsUseTheThroughput() {
+            plan.createFile("create_test", rootDirectory.toPath().resolve("apple.txt"), 100);
+            plan.createFile("create_test", rootDirectory.toPath().resolve("orange.txt"), 100);
+
+            String totals = plan.describeTotals(new ExecutionPlan.Throughput(0.5, 100));
+
+            assertEquals(String.format("Planned 2 operation(s), 200 bytes written, estimated %.1f second(s)", 3.0), totals);
+        }
+
+        @Test
+        void operationsAreGroupedByTheFileStoreOfTheirDestination() throws IOException {
+            Path apple = Files.write(rootDirectory.toPath().resolve("apple.txt"), new byte[5]);
+            plan.copy("group_test", plan.read(apple), rootDirectory.toPath().resolve("not/yet/created/apple.txt"));
+            plan.createFile("create_test", rootDirectory.toPath().resolve("orange.txt"), 100);
+
+            Map<FileStore, List<ExecutionPlan.PlannedOperation>> grouped = plan.groupByFileStore();
+
+            assertEquals(Map.of(Files.getFileStore(rootDirectory.toPath()), plan.getOperations()), grouped);
+            assertEquals(rootDirectory.toPath().toAbsolutePath().normalize(),
+                    ExecutionPlan.nearestExistingFolder(rootDirectory.toPath().resolve("not/yet/created/apple.txt")));
+        }
+
+        @Test
+        void throughputIsMeasuredInTheScratchFolder() throws IOException {
+            ExecutionPlan.Throughput throughput = ExecutionPlan.Throughput.measure(rootDirectory.toPath());
+
+            assertTrue(throughput.estimateSeconds(1, 1) > 0);
+            assertEquals(0, rootDirectory.list().length);
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void readingAMovedEntryReturnsNull() throws IOException {
+            Path apple = Files.write(rootDirectory.toPath().resolve("apple.txt"), new byte[5]);
+            plan.move("group_test", plan.read(apple), rootDirectory.toPath().resolve("output/apple.txt"), true);
+
+            assertNull(plan.read(apple));
+            assertEquals(0, plan.getOperations().get(0).getBytes());
+        }
+
+        @Test
+        void renamingAMissingEntryPlansNothing() {
+            File missing = new File(rootDirectory, "missing.txt");
+            plan.rename("rename_test", missing, new File(rootDirectory, "MISSING.txt"));
+
+            assertTrue(plan.getOperations().isEmpty());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package evaluator;
+
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutionReporterTest {
+
+    ByteArrayOutputStream out;
+    ByteArrayOutputStream err;
+
+    @BeforeEach
+    void initializationBeforeReporterTest() {
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+    }
+
+    ConsoleReporter consoleReporter(ExecutionReporter.Verbosity verbosity, ConsoleReporter.Format format) {
+        return new ConsoleReporter(verbosity, format, new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void fileVerbosityPrintsEverything() {
+            ConsoleReporter reporter = consoleReporter(ExecutionReporter.Verbosity.FILE, ConsoleReporter.Format.TEXT);
+
+            reporter.file("create", "created", "/tmp/a", "File created: a");
+            reporter.instruction("create", "created", "Instruction create created 1 file(s)");
+            reporter.error("group", "Group target not specified.");
+
+            assertEquals("File created: a" + System.lineSeparator() + "Instruction create created 1 file(s)" + System.lineSeparator(), out.toString());
+            assertEquals("Group target not specified." + System.lineSeparator(), err.toString());
+        }
+
+        @Test
+        void summaryVerbosityOnlyPrintsErrorsAndSummary() {
+            ConsoleReporter reporter = consoleReporter(ExecutionReporter.Verbosity.SUMMARY, ConsoleReporter.Format.TEXT);
+
+            assertFalse(reporter.isEnabled(ExecutionReporter.Verbosity.FILE));
+            reporter.file("create", "created", "/tmp/a", "File created: a");
+            reporter.instruction("create", "created", "Instruction create created 1 file(s)");
+            reporter.error("group", "Group target not specified.");
+            reporter.summary("Executed 2 instruction(s), 1 failed");
+
+            assertEquals("Executed 2 instruction(s), 1 failed" + System.lineSeparator(), out.toString());
+            assertEquals("Group target not specified." + System.lineSeparator(), err.toString());
+        }
+
+        @Test
+        void fileErrorsAreReportedAtEveryLevel() {
+            ConsoleReporter reporter = consoleReporter(ExecutionReporter.Verbosity.SUMMARY, ConsoleReporter.Format.NDJSON);
+
+            reporter.fileError("group", "copy_failed", "/tmp/a", "Unable to copy a");
+
+            assertTrue((out.toString() + err.toString()).contains("\"event\":\"copy_failed\""));
+        }
+
+        @Test
+        void ndjsonEscapesValues() {
+            ConsoleReporter reporter = consoleReporter(ExecutionReporter.Verbosity.FILE, ConsoleReporter.Format.NDJSON);
+
+            reporter.file("create", "created", "C:\\files\\a", "File \"a\" created");
+
+            assertEquals("{\"level\":\"file\",\"error\":false,\"instruction\":\"create\",\"event\":\"created\","
+                    + "\"path\":\"C:\\\\files\\\\a\",\"message\":\"File \\\"a\\\" created\"}" + System.lineSeparator(), out.toString());
+            assertEquals("", err.toString());
+        }
+
+        @Test
+        void asyncReporterPrintsInOrderOnFlush() {
+            AsyncExecutionReporter reporter = new AsyncExecutionReporter(consoleReporter(ExecutionReporter.Verbosity.FILE, ConsoleReporter.Format.TEXT), 4);
+
+            StringBuilder expected = new StringBuilder();
+            for (int i = 0; i < 100; i++) {
+                reporter.file("create", "created", "/tmp/" + i, "File created: " + i);
+                expected.append("File created: ").append(i).append(System.lineSeparator());
+            }
+            reporter.flush();
+
+            assertEquals(expected.toString(), out.toString());
+        }
+
+        @Test
+        void asyncReporterPrintsEverythingAndStopsOnClose() {
+            long printers = printerThreads();
+            AsyncExecutionReporter reporter = new AsyncExecutionReporter(consoleReporter(ExecutionReporter.Verbosity.FILE, ConsoleReporter.Format.TEXT), 4);
+            reporter.file("create", "created", "/tmp/0", "File created: 0");
+            reporter.close();
+
+            assertEquals("File created: 0" + System.lineSeparator(), out.toString());
+            assertEquals(printers, printerThreads());
+
+            // closed reporters neither print nor block
+            reporter.file("create", "created", "/tmp/1", "File created: 1");
+            reporter.flush();
+            reporter.close();
+            assertEquals("File created: 0" + System.lineSeparator(), out.toString());
+        }
+    }
+
+    private static long printerThreads() {
+        return Thread.getAllStackTraces().keySet().stream().filter(thread -> thread.getName().equals("simplefiles-reporter")).count();
+    }
+}
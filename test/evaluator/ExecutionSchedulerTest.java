@@ -0,0 +1,94 @@
+package evaluator;
+
+import ast.Action;
+import ast.Instruction;
+import ast.Parameter;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutionSchedulerTest {
+
+    @TempDir
+    File rootDirectory;
+
+    ExecutionScheduler scheduler;
+
+    // Records the error messages instead of printing them
+    final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    final ExecutionReporter reporter = new ExecutionReporter() {
+        @Override
+        public boolean isEnabled(Verbosity level) {
+            return true;
+        }
+
+        @Override
+        public void report(ExecutionEvent event) {
+            if (event.isError()) {
+                errors.add(event.getInstruction() + ": " + event.getMessage());
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+    };
+
+    @BeforeEach
+    void initializationBeforeSchedulerTest() {
+        scheduler = new ExecutionScheduler(2, new Memory(), reporter);
+    }
+
+    @AfterEach
+    void cleanUpAfterEachTest() {
+        scheduler.shutdown();
+    }
+
+    private Instruction instruction(String name, String folder) {
+        Instruction instruction = new Instruction(name, new Action(":create_folder"));
+        instruction.addParameter(new Parameter("path", new File(rootDirectory, folder).getAbsolutePath()));
+        return instruction;
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void independentExecutionsBothRun() {
+            List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+            scheduler.submit(instruction("first", "a"), null, Set.of("first", "second"), () -> ran.add("first"));
+            scheduler.submit(instruction("second", "b"), null, Set.of("first", "second"), () -> ran.add("second"));
+            scheduler.await();
+
+            assertEquals(Set.of("first", "second"), Set.copyOf(ran));
+            assertTrue(errors.isEmpty());
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void failedDependencyIsReportedAndPropagated() {
+            List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+            scheduler.submit(instruction("first", "shared"), null, Set.of("first", "second"), () -> {
+                throw new IllegalStateException("disk gone");
+            });
+            scheduler.submit(instruction("second", "shared/inner"), null, Set.of("first", "second"), () -> ran.add("second"));
+            IllegalStateException failure = assertThrows(IllegalStateException.class, () -> scheduler.await());
+
+            assertEquals("disk gone", failure.getMessage());
+            assertTrue(ran.isEmpty());
+            assertEquals(List.of("second: Not executed, an execution it depends on failed: disk gone"), errors);
+        }
+    }
+}
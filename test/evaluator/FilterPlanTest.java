@@ -0,0 +1,131 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilterPlanTest {
+
+    @TempDir
+    File rootDirectory;
+
+    HashMap<String, String> filterOptions = new HashMap<>();
+    File apple;
+    File folder;
+
+    @BeforeEach
+    void initializationBeforeFilterPlanTest() throws IOException {
+        apple = new File(rootDirectory, "fruit_apple.txt");
+        folder = new File(rootDirectory, "fruit_folder");
+        if (!apple.createNewFile() || !folder.mkdirs()) {
+            fail("Error creating files for filter plan tests");
+        }
+        Files.write(apple.toPath(), new byte[4096]);
+        FileTime modified = FileTime.from(LocalDateTime.of(2024, 1, 15, 12, 0).atZone(ZoneId.systemDefault()).toInstant());
+        Files.setLastModifiedTime(apple.toPath(), modified);
+    }
+
+    @AfterEach
+    void cleanUpAfterEachTest() {
+        filterOptions.clear();
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void emptyOptionsMatchEverything() {
+            FilterPlan plan = FilterPlan.compile(filterOptions);
+
+            assertTrue(plan.test(apple));
+            assertTrue(plan.test(folder));
+        }
+
+        @Test
+        void containsAndExtension() {
+            filterOptions.put("contains", "apple");
+            filterOptions.put("extension", "txt");
+            FilterPlan plan = FilterPlan.compile(filterOptions);
+
+            assertTrue(plan.test(apple));
+            assertFalse(plan.test(folder));
+        }
+
+        @Test
+        void typeFolder() {
+            filterOptions.put("type", "folder");
+            FilterPlan plan = FilterPlan.compile(filterOptions);
+
+            assertFalse(plan.test(apple));
+            assertTrue(plan.test(folder));
+        }
+
+        @Test
+        void modifiedDateRanges() {
+            filterOptions.put("modified_date", "before 2024/02/01-00:00");
+            assertTrue(FilterPlan.compile(filterOptions).test(apple));
+
+            filterOptions.put("modified_date", "after 2024/02/01-00:00");
+            assertFalse(FilterPlan.compile(filterOptions).test(apple));
+
+            filterOptions.put("modified_date", "between 2024/01/01-00:00 2024/01/31-00:00");
+            assertTrue(FilterPlan.compile(filterOptions).test(apple));
+        }
+
+        @Test
+        void sizeComparators() {
+            filterOptions.put("size", "2");
+            filterOptions.put("comparator", "GT");
+            assertTrue(FilterPlan.compile(filterOptions).test(apple));
+
+            filterOptions.put("comparator", "LT");
+            assertFalse(FilterPlan.compile(filterOptions).test(apple));
+        }
+
+        @Test
+        void missingFileIsIgnored() {
+            FilterPlan plan = FilterPlan.compile(filterOptions);
+
+            assertFalse(plan.test(new File(rootDirectory, "does_not_exist")));
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void sizeWithoutComparator() {
+            filterOptions.put("size", "2");
+
+            Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> FilterPlan.compile(filterOptions));
+            assertEquals(exception.getMessage(), "Size comparison missing comparator parameter.");
+        }
+
+        @Test
+        void sizeNotAnInteger() {
+            filterOptions.put("size", "two");
+            filterOptions.put("comparator", "GT");
+
+            Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> FilterPlan.compile(filterOptions));
+            assertEquals(exception.getMessage(), "Specified size must be parsable integer.");
+        }
+
+        @Test
+        void unknownRangeComparator() {
+            filterOptions.put("modified_date", "during 2024/02/01-00:00");
+
+            Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> FilterPlan.compile(filterOptions));
+            assertEquals(exception.getMessage(), "Unknown range comparator: during");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package evaluator;
+
+import ast.Action;
+import ast.Condition;
+import ast.Instruction;
+import ast.Parameter;
+import common.ActionType;
+import errors.SimpleFilesExecutionException;
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InstructionPlanTest {
+
+    Memory memory = new Memory();
+    InstructionPlanCache cache;
+    Instruction instruction;
+    AtomicInteger resolved;
+
+    @BeforeEach
+    void initializationBeforeInstructionPlanTest() {
+        cache = new InstructionPlanCache();
+        instruction = new Instruction("create_test", new Action(":create_file"));
+        instruction.addParameter(new Parameter("name", "hello.txt"));
+        instruction.addParameter(new Parameter("count", "${amount}"));
+        memory.assignVariable("amount", "3");
+        resolved = new AtomicInteger();
+    }
+
+    @AfterEach
+    void cleanUpAfterEachTest() {
+        memory.clear();
+    }
+
+    // Resolves the parameters the way the InstructionRunner does without a condition, counting the calls
+    private InstructionPlan plan(Condition condition) {
+        return cache.get(instruction, condition, ActionType.CREATE_FILE, memory, () -> {
+            resolved.incrementAndGet();
+            Map<String, String> parameters = new HashMap<>();
+            for (Parameter p : instruction.getParameters()) {
+                parameters.put(p.getKey(), p.getValue(memory));
+            }
+            return parameters;
+        });
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void planIsReusedWhileVariablesDoNotChange() {
+            InstructionPlan first = plan(null);
+            InstructionPlan second = plan(null);
+
+            assertSame(first, second);
+            assertEquals(1, resolved.get());
+            assertEquals("3", second.getParameters().get("count"));
+        }
+
+        @Test
+        void compiledValuesAreKeptWithThePlan() {
+            InstructionPlan plan = plan(null);
+            AtomicInteger parsed = new AtomicInteger();
+
+            for (int i = 0; i < 3; i++) {
+                int count = plan.compiled("count", () -> {
+                    parsed.incrementAndGet();
+                    return Integer.parseInt(plan.getParameters().get("count"));
+                });
+                assertEquals(3, count);
+            }
+            assertEquals(1, parsed.get());
+            assertNull(plan.compiled("template_path", () -> null));
+        }
+
+        @Test
+        void assigningAVariableResolvesAgain() {
+            InstructionPlan first = plan(null);
+            memory.assignVariable("amount", "5");
+            InstructionPlan second = plan(null);
+
+            assertNotSame(first, second);
+            assertEquals("5", second.getParameters().get("count"));
+        }
+
+        @Test
+        void conditionsAndNewParametersGetTheirOwnPlan() {
+            InstructionPlan withoutCondition = plan(null);
+            InstructionPlan withCondition = plan(new Condition("only_text"));
+            assertNotSame(withoutCondition, withCondition);
+
+            instruction.addParameter(new Parameter("path", "somewhere"));
+            assertTrue(plan(null).getParameters().containsKey("path"));
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void failedCompileIsNotKept() {
+            InstructionPlan plan = plan(null);
+            AtomicInteger attempts = new AtomicInteger();
+
+            for (int i = 0; i < 2; i++) {
+                assertThrows(SimpleFilesExecutionException.class, () -> plan.compiled("count", () -> {
+                    attempts.incrementAndGet();
+                    throw new SimpleFilesExecutionException("Invalid format for Count");
+                }));
+            }
+            assertEquals(2, attempts.get());
+        }
+
+        @Test
+        void parametersCanNotBeChanged() {
+            assertThrows(UnsupportedOperationException.class, () -> plan(null).getParameters().put("count", "1"));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package evaluator;
 
 import ast.Action;
+import ast.Condition;
 import ast.Instruction;
 import ast.Parameter;
 import errors.SimpleFilesExecutionException;
@@ -13,9 +14,12 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,9 +36,10 @@ public class InstructionRunnerTest {
     File otherDirectory1;
 
     ArrayList<Parameter> params = new ArrayList<>();
-    InstructionRunner instructionRunner = new InstructionRunner();
+    ExecutionContext context = new ExecutionContext();
+    InstructionRunner instructionRunner = new InstructionRunner(new ConsoleReporter(), context);
 
-    Memory memory = Memory.getInstance();
+    Memory memory = context.getMemory();
 
     @BeforeEach
     void initializationBeforeMainTest() {
@@ -99,6 +104,89 @@ public class InstructionRunnerTest {
                 assertEquals(files.length, 4);
                 assertTrue(Arrays.asList(files).contains("APPLE.txt"));
             }
+
+            @Test
+            void renameKeepsItsModeWithConditionOfAGroup() {
+                // Setup
+                // The condition is also used with a group copy, its mode is meant for the group
+                params.add(new Parameter("mode", "upper_case"));
+                Instruction inst = buildInstructionHelper("rename_files", ":rename", params);
+                Condition condition = new Condition("apples", new Action(":condition"));
+                condition.addParameter("contains", "apple");
+                condition.addParameter("mode", "copy");
+
+                // Invoke
+                try {
+                    instructionRunner.runRenameInstruction(inst, condition);
+                } catch (Exception e) {
+                    fail(String.format("Unexpected exception thrown: %s", e.getMessage()));
+                }
+
+                // Assert
+                String[] files = rootDirectory.list();
+
+                assertNotNull(files);
+                assertTrue(Arrays.asList(files).contains("APPLE.txt"));
+                assertTrue(Arrays.asList(files).contains("orange.txt"));
+            }
+
+            @Test
+            void renameComposesTransformsInOnePass() {
+                // Setup
+                // Replace, camel case and number the fruit in one instruction
+                params.add(new Parameter("mode", "camel_case"));
+                params.add(new Parameter("find", "^(\\w)"));
+                params.add(new Parameter("replace", "fresh_$1"));
+                params.add(new Parameter("sequence", "name"));
+                params.add(new Parameter("recursive", "false"));
+                Instruction inst = buildInstructionHelper("rename_files", ":rename", params);
+
+                // Invoke
+                try {
+                    instructionRunner.runRenameInstruction(inst, null);
+                } catch (Exception e) {
+                    fail(String.format("Unexpected exception thrown: %s", e.getMessage()));
+                }
+
+                // Assert
+                String[] files = rootDirectory.list();
+
+                assertNotNull(files);
+                assertEquals(Arrays.asList("freshApple_1.txt", "freshGrape_2.txt", "freshMango_3.txt", "freshOrange_4.txt"),
+                        Arrays.stream(files).sorted().toList());
+            }
+
+            @Test
+            void renameNestedFoldersDeepestFirst() {
+                // Setup
+                // Folders are renamed after their content, so the old paths of the content stay valid
+                if (!new File(rootDirectory, "Fruit/Berry").mkdirs()) {
+                    fail("Error creating folders for renaming tests");
+                }
+                try {
+                    if (!new File(rootDirectory, "Fruit/Berry/cherry.txt").createNewFile()) {
+                        fail("Error creating files for renaming tests");
+                    }
+                } catch (IOException e) {
+                    fail("Error creating files for renaming tests");
+                }
+                params.add(new Parameter("mode", "upper_case"));
+                params.add(new Parameter("contains", "r"));
+                params.add(new Parameter("io_threads", "2"));
+                Instruction inst = buildInstructionHelper("rename_files", ":rename", params);
+
+                // Invoke
+                try {
+                    instructionRunner.runRenameInstruction(inst, null);
+                } catch (Exception e) {
+                    fail(String.format("Unexpected exception thrown: %s", e.getMessage()));
+                }
+
+                // Assert
+                assertTrue(new File(rootDirectory, "FRUIT/BERRY/CHERRY.txt").exists());
+                assertTrue(new File(rootDirectory, "GRAPE.txt").exists());
+                assertTrue(new File(rootDirectory, "apple.txt").exists());
+            }
         }
 
         @Nested
@@ -176,6 +264,30 @@ public class InstructionRunnerTest {
                 }
             }
 
+            @Test
+            void renameCollisionIsReportedAndSkipped() {
+                // Setup
+                // APPLE.txt would be renamed onto the existing apple.txt
+                try {
+                    if (!new File(rootDirectory, "APPLE.txt").createNewFile()) {
+                        fail("Error creating files for renaming tests");
+                    }
+                } catch (IOException e) {
+                    fail("Error creating files for renaming tests");
+                }
+                params.add(new Parameter("mode", "lower_case"));
+                params.add(new Parameter("recursive", "false"));
+                Instruction inst = buildInstructionHelper("rename_files", ":rename", params);
+
+                // Invoke and assert
+                Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> instructionRunner.runRenameInstruction(inst, null));
+                assertEquals(exception.getMessage(), String.format(
+                        "Error encountered running instruction: rename_files. Failed to rename 1 file(s): %s (apple.txt already exists)",
+                        new File(rootDirectory, "APPLE.txt").getAbsolutePath()));
+                assertTrue(new File(rootDirectory, "APPLE.txt").exists());
+                assertTrue(new File(rootDirectory, "apple.txt").exists());
+            }
+
             @Test
             void targetPathDoesNotExist() {
                 // When !File.exists() is not testable with JUnit5 and Mockito5.10
@@ -312,10 +424,119 @@ public class InstructionRunnerTest {
 
             }
 
+            @Test
+            void createFilesInParallelKeepsNameOrder() throws IOException {
+                // Setup. One of the files exists already and is skipped.
+                assertTrue(new File(rootDirectory, "hello_7.txt").createNewFile());
+                params.add(new Parameter("name", "hello_${ITERATOR}.txt"));
+                params.add(new Parameter("count", "500"));
+                params.add(new Parameter("io_threads", "4"));
+                params.add(new Parameter("path", rootDirectory.getAbsolutePath()));
+
+                Instruction inst = buildInstructionHelper("create_test", ":create_file", params);
+
+                // Invoke
+                instructionRunner.runCreateInstruction(inst, "file", null);
+
+                // Assert every file exists and memory has the created ones in iterator order
+                String[] files = rootDirectory.list();
+                assertNotNull(files);
+                assertEquals(files.length, 500);
+
+                ArrayList<File> created = memory.getGroupedFiles("create_test");
+                assertEquals(created.size(), 499);
+                int expected = 0;
+                for (File file : created) {
+                    if (expected == 7) {
+                        expected++;
+                    }
+                    assertEquals(new File(rootDirectory, "hello_" + expected + ".txt").getAbsolutePath(), file.getAbsolutePath());
+                    expected++;
+                }
+            }
+
+            @Test
+            void createFilesFromTemplate() throws IOException {
+                // Setup a template outside of the output folder
+                File template = new File(otherDirectory, "template.txt");
+                Files.writeString(template.toPath(), "template content");
+                params.add(new Parameter("name", "hello_${ITERATOR}.txt"));
+                params.add(new Parameter("count", "20"));
+                params.add(new Parameter("io_threads", "2"));
+                params.add(new Parameter("template_path", template.getAbsolutePath()));
+                params.add(new Parameter("path", rootDirectory.getAbsolutePath()));
+
+                Instruction inst = buildInstructionHelper("create_test", ":create_file", params);
+
+                // Invoke
+                instructionRunner.runCreateInstruction(inst, "file", null);
+
+                // Assert every file has the template content and is tracked for chained groups
+                ArrayList<File> created = memory.getGroupedFiles("create_test");
+                assertEquals(created.size(), 20);
+                for (int i = 0; i < 20; i++) {
+                    assertEquals(new File(rootDirectory, "hello_" + i + ".txt").getAbsolutePath(), created.get(i).getAbsolutePath());
+                    assertEquals("template content", Files.readString(created.get(i).toPath()));
+                }
+            }
+
+            @Test
+            void createFoldersInParallel() {
+                // Setup
+                params.add(new Parameter("name", "hello_${ITERATOR:0:-2}"));
+                params.add(new Parameter("count", "50"));
+                params.add(new Parameter("io_threads", "3"));
+                params.add(new Parameter("path", rootDirectory.getAbsolutePath()));
+
+                Instruction inst = buildInstructionHelper("create_test", ":create_folder", params);
+
+                // Invoke
+                instructionRunner.runCreateInstruction(inst, "folder", null);
+
+                // Assert
+                ArrayList<File> created = memory.getGroupedFiles("create_test");
+                assertEquals(created.size(), 50);
+                for (int i = 0; i < 50; i++) {
+                    assertTrue(created.get(i).isDirectory());
+                    assertEquals("hello_" + (i * -2), created.get(i).getName());
+                }
+            }
+
         }
         @Nested
         public class UnhappyPath {
 
+            @Test
+            void createFoldersInParallelChecksNamesFirst() {
+                // Setup
+                params.add(new Parameter("name", "hello_${ITERATOR}.folder"));
+                params.add(new Parameter("count", "20"));
+                params.add(new Parameter("io_threads", "4"));
+                params.add(new Parameter("path", rootDirectory.getAbsolutePath()));
+                Instruction inst = buildInstructionHelper("create_test_inst", ":create_folder", params);
+
+                // Invoke and assert nothing was created
+                Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> instructionRunner.runCreateInstruction(inst, "folder", null));
+                assertEquals(exception.getMessage(), "Error encountered running instruction: create_test_inst. Found restricted symbol in specified folder name: hello_0.folder");
+                assertEquals(0, Objects.requireNonNull(rootDirectory.list()).length);
+                assertFalse(memory.hasGroupedFilesFromInstruction("create_test_inst"));
+            }
+
+            @Test
+            void createFileMissingTemplate() {
+                // Setup
+                File template = new File(otherDirectory, "missing.txt");
+                params.add(new Parameter("name", "hello.txt"));
+                params.add(new Parameter("template_path", template.getAbsolutePath()));
+                params.add(new Parameter("path", rootDirectory.getAbsolutePath()));
+                Instruction inst = buildInstructionHelper("create_test_inst", ":create_file", params);
+
+                // Invoke and assert nothing was created
+                Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> instructionRunner.runCreateInstruction(inst, "file", null));
+                assertEquals(exception.getMessage(), "Error encountered running instruction: create_test_inst. Template must be an existing file: " + template.getAbsolutePath());
+                assertEquals(0, Objects.requireNonNull(rootDirectory.list()).length);
+            }
+
             @Test
             void createFileNoNameParamThrowsExecutionException() {
                 // Setup
@@ -689,6 +910,151 @@ public class InstructionRunnerTest {
                 assertTrue(Arrays.asList(newPaths).contains(groupedFiles.get(4).getAbsolutePath()));
                 assertTrue(Arrays.asList(newPaths).contains(groupedFiles.get(5).getAbsolutePath()));
             }
+
+            @Test
+            void groupCopySkipsExcludedFoldersAndDepth() throws Exception {
+                // Setup files at several depths, one of them in a folder that should never be walked
+                File nested = new File(rootDirectory, "nested");
+                File deep = new File(nested, "deep");
+                File excluded = new File(rootDirectory, "node_modules");
+                assertTrue(deep.mkdirs());
+                assertTrue(excluded.mkdirs());
+                new File(rootDirectory, "fruit_apple.txt").createNewFile();
+                new File(nested, "fruit_orange.txt").createNewFile();
+                new File(deep, "fruit_mango.txt").createNewFile();
+                new File(excluded, "fruit_banana.txt").createNewFile();
+
+                // Setup group instruction. Copies fruits at most two levels deep, skipping node_modules.
+                params.add(new Parameter("group_target", rootDirectory.getAbsolutePath()));
+                params.add(new Parameter("path", otherDirectory.getAbsolutePath()));
+                params.add(new Parameter("mode", "copy"));
+                params.add(new Parameter("contains", "fruit"));
+                params.add(new Parameter("max_depth", "2"));
+                params.add(new Parameter("exclude_dir", "node_modules;.git"));
+                Instruction instruction = buildInstructionHelper("group_copy", ":group", params);
+
+                // Invoke
+                instructionRunner.runGroupAction(instruction, null);
+
+                // Assert only the files above the depth limit and outside the excluded folder are copied
+                assertTrue(new File(otherDirectory, "fruit_apple.txt").exists());
+                assertTrue(new File(otherDirectory, "nested/fruit_orange.txt").exists());
+                assertFalse(new File(otherDirectory, "nested/deep/fruit_mango.txt").exists());
+                assertFalse(new File(otherDirectory, "node_modules").exists());
+
+                ArrayList<File> groupedFiles = memory.getGroupedFiles("group_copy");
+                assertEquals(groupedFiles.size(), 2);
+            }
+
+            @Test
+            void groupCopyWithParallelScanKeepsNameOrder() throws Exception {
+                // Setup nested folders so the scan is split over several directory tasks
+                for (String dir : new String[]{"b_folder", "a_folder", "c_folder"}) {
+                    File folder = new File(rootDirectory, dir);
+                    assertTrue(folder.mkdirs());
+                    new File(folder, "fruit_2.txt").createNewFile();
+                    new File(folder, "fruit_1.txt").createNewFile();
+                }
+
+                // Setup group instruction. Copies all fruits using a parallel scan ordered by name.
+                params.add(new Parameter("group_target", rootDirectory.getAbsolutePath()));
+                params.add(new Parameter("path", otherDirectory.getAbsolutePath()));
+                params.add(new Parameter("mode", "copy"));
+                params.add(new Parameter("type", "file"));
+                params.add(new Parameter("scan_threads", "4"));
+                params.add(new Parameter("scan_order", "name"));
+                Instruction instruction = buildInstructionHelper("group_copy", ":group", params);
+
+                // Invoke
+                instructionRunner.runGroupAction(instruction, null);
+
+                // Assert the grouped files are stored in the same order a sorted walk would find them
+                ArrayList<File> groupedFiles = memory.getGroupedFiles("group_copy");
+                String[] expected = {"a_folder/fruit_1.txt", "a_folder/fruit_2.txt", "b_folder/fruit_1.txt",
+                        "b_folder/fruit_2.txt", "c_folder/fruit_1.txt", "c_folder/fruit_2.txt"};
+                assertEquals(groupedFiles.size(), expected.length);
+                for (int i = 0; i < expected.length; i++) {
+                    assertEquals(new File(otherDirectory, expected[i]).getAbsolutePath(), groupedFiles.get(i).getAbsolutePath());
+                }
+            }
+
+            @Test
+            void groupCopyWithIoThreadsKeepsScanOrder() throws Exception {
+                // Setup enough files that the copies are spread over all workers
+                File folder = new File(rootDirectory, "many_fruits");
+                assertTrue(folder.mkdirs());
+                for (int i = 0; i < 40; i++) {
+                    Files.write(new File(folder, String.format("fruit_%02d.txt", i)).toPath(), new byte[i * 100]);
+                }
+
+                // Setup group instruction. Copies all fruits on four copy threads.
+                params.add(new Parameter("group_target", folder.getAbsolutePath()));
+                params.add(new Parameter("path", otherDirectory.getAbsolutePath()));
+                params.add(new Parameter("mode", "copy"));
+                params.add(new Parameter("type", "file"));
+                params.add(new Parameter("scan_threads", "2"));
+                params.add(new Parameter("scan_order", "name"));
+                params.add(new Parameter("io_threads", "4"));
+                Instruction instruction = buildInstructionHelper("group_copy", ":group", params);
+
+                // Invoke
+                instructionRunner.runGroupAction(instruction, null);
+
+                // Assert every file is copied and stored in scan order
+                ArrayList<File> groupedFiles = memory.getGroupedFiles("group_copy");
+                assertEquals(groupedFiles.size(), 40);
+                for (int i = 0; i < 40; i++) {
+                    File copy = new File(otherDirectory, String.format("fruit_%02d.txt", i));
+                    assertEquals(copy.getAbsolutePath(), groupedFiles.get(i).getAbsolutePath());
+                    assertEquals(i * 100, copy.length());
+                }
+            }
+
+            @Test
+            void groupMoveWithParallelScanDoesNotDescendIntoMovedFolders() throws Exception {
+                // Setup folders with two levels of subfolders, every folder is accepted by the filter
+                for (int i = 0; i < 8; i++) {
+                    File nested = new File(rootDirectory, "folder_" + i + "/inner/deepest");
+                    assertTrue(nested.mkdirs());
+                    new File(nested, "fruit.txt").createNewFile();
+                }
+
+                // Setup group instruction. Moves all folders using a parallel scan.
+                params.add(new Parameter("group_target", rootDirectory.getAbsolutePath()));
+                params.add(new Parameter("path", otherDirectory.getAbsolutePath()));
+                params.add(new Parameter("mode", "move"));
+                params.add(new Parameter("type", "folder"));
+                params.add(new Parameter("scan_threads", "4"));
+                Instruction instruction = buildInstructionHelper("group_move", ":group", params);
+
+                // Invoke
+                List<ExecutionEvent> events = Collections.synchronizedList(new ArrayList<>());
+                ExecutionReporter reporter = new ExecutionReporter() {
+                    @Override
+                    public boolean isEnabled(Verbosity level) {
+                        return true;
+                    }
+
+                    @Override
+                    public void report(ExecutionEvent event) {
+                        events.add(event);
+                    }
+
+                    @Override
+                    public void flush() {
+                    }
+                };
+                new InstructionRunner(reporter, context).runGroupAction(instruction, null);
+
+                // Assert only the top folders are grouped, and they moved with their content
+                ArrayList<File> groupedFiles = memory.getGroupedFiles("group_move");
+                assertEquals(8, groupedFiles.size());
+                for (int i = 0; i < 8; i++) {
+                    assertTrue(new File(otherDirectory, "folder_" + i + "/inner/deepest/fruit.txt").isFile());
+                }
+                assertEquals(0, rootDirectory.list().length);
+                assertTrue(events.stream().noneMatch(event -> event.getKind().equals("missing")));
+            }
         }
 
         @Nested
@@ -709,6 +1075,40 @@ public class InstructionRunnerTest {
                 assertFalse(memory.hasGroupedFilesFromInstruction("group_copy"));
             }
 
+            @Test
+            void invalidIoThreads() {
+                // Setup group instruction.
+                params.add(new Parameter("group_target", rootDirectory.getAbsolutePath()));
+                params.add(new Parameter("path", otherDirectory.getAbsolutePath()));
+                params.add(new Parameter("mode", "copy"));
+                params.add(new Parameter("io_threads", "0"));
+                Instruction instruction = buildInstructionHelper("group_copy", ":group", params);
+
+                // Invoke
+                Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> instructionRunner.runGroupAction(instruction, null));
+                assertEquals(exception.getMessage(), "Error encountered running instruction: group_copy. io_threads can not be less than 1: 0.");
+
+                // Check that memory is unchanged
+                assertFalse(memory.hasGroupedFilesFromInstruction("group_copy"));
+            }
+
+            @Test
+            void unknownCopyBackend() {
+                // Setup group instruction.
+                params.add(new Parameter("group_target", rootDirectory.getAbsolutePath()));
+                params.add(new Parameter("path", otherDirectory.getAbsolutePath()));
+                params.add(new Parameter("mode", "copy"));
+                params.add(new Parameter("copy_backend", "teleport"));
+                Instruction instruction = buildInstructionHelper("group_copy", ":group", params);
+
+                // Invoke
+                Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> instructionRunner.runGroupAction(instruction, null));
+                assertEquals(exception.getMessage(), "Error encountered running instruction: group_copy. Unknown copy_backend: teleport.");
+
+                // Check that memory is unchanged
+                assertFalse(memory.hasGroupedFilesFromInstruction("group_copy"));
+            }
+
             @Test
             void noPathSpecified() {
                 // Setup group instruction.
@@ -1138,6 +1538,97 @@ public class InstructionRunnerTest {
 
 
 
+    @Nested
+    public class DryRunTests {
+
+        ExecutionPlan plan = new ExecutionPlan();
+        ExecutionContext dryRun = new ExecutionContext(plan, null, null);
+        InstructionRunner dryRunner = new InstructionRunner(new ConsoleReporter(), dryRun);
+
+        @Test
+        void chainedInstructionsOnlyPlanOperations() throws Exception {
+            params.add(new Parameter("name", "hello_${ITERATOR:50}.txt"));
+            params.add(new Parameter("count", "3"));
+            params.add(new Parameter("path", rootDirectory.getAbsolutePath()));
+            dryRunner.runCreateInstruction(buildInstructionHelper("create_test", ":create_file", params), "file", null);
+
+            ArrayList<Parameter> groupParams = new ArrayList<>();
+            groupParams.add(new Parameter("group_target", "create_test"));
+            groupParams.add(new Parameter("path", otherDirectory.getAbsolutePath()));
+            groupParams.add(new Parameter("mode", "move"));
+            dryRunner.runGroupAction(buildInstructionHelper("group_move", ":group", groupParams), null);
+
+            ArrayList<Parameter> renameParams = new ArrayList<>();
+            renameParams.add(new Parameter("path", "group_move"));
+            renameParams.add(new Parameter("mode", "upper_case"));
+            dryRunner.runRenameInstruction(buildInstructionHelper("rename_test", ":rename", renameParams), null);
+
+            // Nothing is touched on disk
+            assertEquals(0, Objects.requireNonNull(rootDirectory.list()).length);
+            assertEquals(0, Objects.requireNonNull(otherDirectory.list()).length);
+
+            ArrayList<ExecutionPlan.PlannedOperation> operations = plan.getOperations();
+            assertEquals(9, operations.size());
+            assertEquals(ExecutionPlan.Operation.CREATE_FILE, operations.get(0).getOperation());
+            assertEquals(ExecutionPlan.Operation.MOVE, operations.get(3).getOperation());
+            assertEquals(otherDirectory.toPath().resolve("hello_50.txt"), operations.get(3).getDestination());
+            assertEquals(ExecutionPlan.Operation.RENAME, operations.get(6).getOperation());
+            assertTrue(plan.exists(otherDirectory.toPath().resolve("HELLO_50.txt")));
+            assertFalse(plan.exists(rootDirectory.toPath().resolve("hello_50.txt")));
+        }
+
+        @Test
+        void walkedFolderThatOnlyThePlanCreatedIsSeen() throws Exception {
+            Path planned = otherDirectory.toPath().resolve("planned");
+            params.add(new Parameter("name", "hello_${ITERATOR}.txt"));
+            params.add(new Parameter("count", "3"));
+            params.add(new Parameter("path", rootDirectory.getAbsolutePath()));
+            dryRunner.runCreateInstruction(buildInstructionHelper("create_test", ":create_file", params), "file", null);
+
+            // copies by path, so the step below has no group result to use
+            ArrayList<Parameter> copyParams = new ArrayList<>();
+            copyParams.add(new Parameter("group_target", rootDirectory.getAbsolutePath()));
+            copyParams.add(new Parameter("path", planned.toString()));
+            copyParams.add(new Parameter("mode", "copy"));
+            dryRunner.runGroupAction(buildInstructionHelper("group_copy", ":group", copyParams), null);
+
+            // walks the folder the copy only created in the plan
+            ArrayList<Parameter> moveParams = new ArrayList<>();
+            moveParams.add(new Parameter("group_target", planned.toString()));
+            moveParams.add(new Parameter("path", otherDirectory.toPath().resolve("moved").toString()));
+            moveParams.add(new Parameter("mode", "move"));
+            dryRunner.runGroupAction(buildInstructionHelper("group_move", ":group", moveParams), null);
+
+            ArrayList<Parameter> renameParams = new ArrayList<>();
+            renameParams.add(new Parameter("path", planned.toString()));
+            renameParams.add(new Parameter("mode", "upper_case"));
+            dryRunner.runRenameInstruction(buildInstructionHelper("rename_test", ":rename", renameParams), null);
+
+            assertFalse(Files.exists(planned));
+            assertEquals(3, dryRun.getMemory().getGroupedFiles("group_move").size());
+            assertTrue(plan.exists(otherDirectory.toPath().resolve("moved/hello_0.txt")));
+            assertFalse(plan.exists(planned.resolve("hello_0.txt")));
+            // the moved files are gone from the walked folder, only the folder itself is renamed
+            long renames = plan.getOperations().stream()
+                    .filter(operation -> operation.getOperation() == ExecutionPlan.Operation.RENAME).count();
+            assertEquals(1, renames);
+        }
+
+        @Test
+        void existingFileFailsLikeARealRun() throws IOException {
+            assertTrue(new File(rootDirectory, "hello_1.txt").createNewFile());
+            params.add(new Parameter("name", "hello_${ITERATOR}.txt"));
+            params.add(new Parameter("count", "2"));
+            params.add(new Parameter("path", rootDirectory.getAbsolutePath()));
+
+            dryRunner.runCreateInstruction(buildInstructionHelper("create_test", ":create_file", params), "file", null);
+
+            assertEquals(1, plan.getOperations().size());
+            assertEquals(rootDirectory.toPath().resolve("hello_0.txt"), plan.getOperations().get(0).getDestination());
+            assertFalse(new File(rootDirectory, "hello_0.txt").exists());
+        }
+    }
+
     Instruction buildInstructionHelper(String name, String action, ArrayList<Parameter> listOfParams) {
         Instruction result = new Instruction(name);
         Action theAction = new Action(action);
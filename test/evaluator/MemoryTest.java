@@ -14,7 +14,7 @@ import static evaluator.Memory.isVariableReference;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class MemoryTest {
-    Memory memory = Memory.getInstance();
+    Memory memory = new Memory();
     @BeforeEach
     void initializationBeforeMemoryTest() {
         memory.clear();
@@ -123,6 +123,22 @@ public class MemoryTest {
                 assertEquals(filesFromMemory.get(1).getName(), "there.txt");
             }
 
+            @Test
+            void groupedResultMembership() {
+                // Setup
+                ArrayList<File> files = new ArrayList<>();
+                files.add(new File("here.txt"));
+                files.add(new File("there.txt"));
+
+                // Invoke
+                memory.storeGroupResult("inst_name", files);
+
+                // Assert
+                assertTrue(memory.isInGroup("inst_name", new File("here.txt").toPath()));
+                assertTrue(memory.isInGroup("inst_name", new File("there.txt").getAbsoluteFile().toPath()));
+                assertFalse(memory.isInGroup("inst_name", new File("elsewhere.txt").toPath()));
+            }
+
             @Test
             void someValidVariableReferences() {
                 // This test is to check the static method isVariableReference
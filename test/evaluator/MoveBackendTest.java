@@ -0,0 +1,90 @@
+package evaluator;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveBackendTest {
+
+    @TempDir
+    File rootDirectory;
+
+    File source;
+    File folder;
+    File outputDirectory;
+
+    @BeforeEach
+    void initializationBeforeMoveBackendTest() throws IOException {
+        source = new File(rootDirectory, "fruit_apple.txt");
+        folder = new File(rootDirectory, "fruit_folder");
+        outputDirectory = new File(rootDirectory, "output");
+        if (!new File(folder, "nested").mkdirs() || !outputDirectory.mkdirs()) {
+            fail("Error creating files for move backend tests");
+        }
+        Files.write(source.toPath(), new byte[5000]);
+        Files.write(new File(folder, "fruit_banana.txt").toPath(), new byte[300]);
+        Files.write(new File(folder, "nested/fruit_cherry.txt").toPath(), new byte[70]);
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void detectSameFileStore() {
+            assertTrue(MoveBackend.detect(rootDirectory.toPath(), outputDirectory.toPath()).isSameFileStore());
+        }
+
+        @Test
+        void renameReplacesExistingFile() throws IOException {
+            Path target = new File(outputDirectory, "fruit_apple.txt").toPath();
+            Files.write(target, new byte[10]);
+
+            new MoveBackend(true, new CopyBackend(CopyBackend.Strategy.TRANSFER)).move(FileEntry.read(source.toPath()), target);
+
+            assertFalse(source.exists());
+            assertEquals(5000, Files.size(target));
+        }
+
+        @Test
+        void crossStoreFileIsCopiedThenDeleted() throws IOException {
+            Path target = new File(outputDirectory, "fruit_apple.txt").toPath();
+
+            new MoveBackend(false, new CopyBackend(CopyBackend.Strategy.TRANSFER)).move(FileEntry.read(source.toPath()), target);
+
+            assertFalse(source.exists());
+            assertEquals(5000, Files.size(target));
+        }
+
+        @Test
+        void crossStoreFolderIsCopiedThenDeleted() throws IOException {
+            Path target = new File(outputDirectory, "fruit_folder").toPath();
+
+            new MoveBackend(false, new CopyBackend(CopyBackend.Strategy.TRANSFER)).move(FileEntry.read(folder.toPath()), target);
+
+            assertFalse(folder.exists());
+            assertEquals(300, Files.size(target.resolve("fruit_banana.txt")));
+            assertEquals(70, Files.size(target.resolve("nested/fruit_cherry.txt")));
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void missingSourceIsReported() throws IOException {
+            FileEntry entry = FileEntry.read(source.toPath());
+            Files.delete(source.toPath());
+            Path target = new File(outputDirectory, "fruit_apple.txt").toPath();
+
+            assertThrows(NoSuchFileException.class, () -> new MoveBackend(true, new CopyBackend(CopyBackend.Strategy.TRANSFER)).move(entry, target));
+            assertThrows(NoSuchFileException.class, () -> new MoveBackend(false, new CopyBackend(CopyBackend.Strategy.TRANSFER)).move(entry, target));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameTemplateTest {
+
+    Memory memory = new Memory();
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void plainName() {
+            NameTemplate names = NameTemplate.compile("hello.txt", 1, memory);
+
+            assertEquals(1, names.size());
+            assertEquals("hello.txt", names.render(0));
+        }
+
+        @Test
+        void iteratorWithStartAndStep() {
+            NameTemplate names = NameTemplate.compile("hello_${ITERATOR:10:-3}.txt", 4, memory);
+
+            assertEquals("hello_10.txt,hello_7.txt,hello_4.txt,hello_1.txt", names.names().collect(Collectors.joining(",")));
+        }
+
+        @Test
+        void iteratorDefaultsAndLargeCounts() {
+            NameTemplate names = NameTemplate.compile("hello_${ITERATOR}", 10_000_000, memory);
+
+            assertEquals("hello_0", names.render(0));
+            assertEquals("hello_9999999", names.render(9_999_999));
+            assertEquals(10_000_000, names.indexes().parallel().count());
+        }
+
+        @Test
+        void zeroPaddedIterator() {
+            NameTemplate names = NameTemplate.compile("file_${ITERATOR:-1:1:6}", 3, memory);
+
+            assertEquals("file_-000001,file_000000,file_000001", names.names().collect(Collectors.joining(",")));
+        }
+
+        @Test
+        void multiplePlaceholders() {
+            NameTemplate names = NameTemplate.compile("${ITERATOR}_of_${ITERATOR:1:2:3}.txt", 3, memory);
+
+            assertEquals("0_of_001.txt,1_of_003.txt,2_of_005.txt", names.names().collect(Collectors.joining(",")));
+        }
+
+        @Test
+        void variableInterpolation() {
+            memory.assignVariable("prefix", "report_${ITERATOR}");
+            NameTemplate names = NameTemplate.compile("${prefix}.txt", 2, memory);
+
+            assertEquals("report_0.txt,report_1.txt", names.names().collect(Collectors.joining(",")));
+        }
+
+        @Test
+        void dateStamp() {
+            String year = String.valueOf(LocalDate.now().getYear());
+            NameTemplate names = NameTemplate.compile("${DATE:yyyy}_${ITERATOR}", 2, memory);
+
+            assertEquals(year + "_1", names.render(1));
+        }
+
+        @Test
+        void rendererReusesItsBuffer() {
+            NameTemplate names = NameTemplate.compile("hello_${ITERATOR}", 3, memory);
+            NameTemplate.Renderer renderer = names.renderer();
+
+            assertEquals("hello_2", renderer.render(2));
+            assertEquals("hello_0", renderer.render(0));
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void countWithoutDynamicConstruct() {
+            Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> NameTemplate.compile("hello.txt", 2, memory));
+            assertEquals(exception.getMessage(), "Count is more than 1. Missing dynamic construct for name");
+        }
+
+        @Test
+        void invalidDynamicConstruct() {
+            Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> NameTemplate.compile("hello_${COUNTER}", 2, memory));
+            assertEquals(exception.getMessage(), "Error resolving dynamic construct");
+        }
+
+        @Test
+        void unknownVariable() {
+            Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> NameTemplate.compile("${missing}_${ITERATOR}", 2, memory));
+            assertEquals(exception.getMessage(), "Error resolving dynamic construct");
+        }
+
+        @Test
+        void unclosedPlaceholder() {
+            Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> NameTemplate.compile("hello_${ITERATOR", 2, memory));
+            assertEquals(exception.getMessage(), "Error resolving dynamic construct");
+        }
+    }
+}
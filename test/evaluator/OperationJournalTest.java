@@ -0,0 +1,167 @@
+package evaluator;
+
+import ast.Action;
+import ast.Instruction;
+import ast.Parameter;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OperationJournalTest {
+
+    @TempDir
+    File rootDirectory;
+
+    Path journalPath;
+
+    Memory memory = new Memory();
+
+    @BeforeEach
+    void initializationBeforeOperationJournalTest() {
+        journalPath = rootDirectory.toPath().resolve("run.journal");
+    }
+
+    @AfterEach
+    void cleanUpAfterEachTest() {
+        memory.clear();
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void completedExecutionIsSkippedWithItsResult() throws IOException {
+            File apple = new File(rootDirectory, "apple.txt");
+            try (OperationJournal journal = OperationJournal.create(journalPath)) {
+                assertFalse(journal.begin("create_test", memory));
+                journal.record("create_test", ExecutionPlan.Operation.CREATE_FILE, null, apple.toPath());
+                memory.storeGroupResult("create_test", new ArrayList<>(List.of(apple)));
+                memory.storeBasePath("create_test", rootDirectory.getAbsolutePath());
+                journal.complete("create_test", memory);
+            }
+            memory.clear();
+
+            try (OperationJournal journal = OperationJournal.resume(journalPath)) {
+                assertTrue(journal.begin("create_test", memory));
+                // the second execution of the same instruction did not complete
+                assertFalse(journal.begin("create_test", memory));
+            }
+            assertEquals(List.of(apple), memory.getGroupedFiles("create_test"));
+            assertEquals(rootDirectory.getAbsolutePath(), memory.getBasePath("create_test"));
+        }
+
+        @Test
+        void interruptedExecutionSkipsCompletedOperations() throws IOException {
+            Path source = rootDirectory.toPath().resolve("apple.txt");
+            Path target = rootDirectory.toPath().resolve("output/apple.txt");
+            try (OperationJournal journal = OperationJournal.create(journalPath)) {
+                journal.begin("group_test", memory);
+                journal.record("group_test", ExecutionPlan.Operation.MOVE, source, target);
+            }
+
+            try (OperationJournal journal = OperationJournal.resume(journalPath)) {
+                assertFalse(journal.begin("group_test", memory));
+                assertEquals(target, journal.getCompletedTarget("group_test", ExecutionPlan.Operation.MOVE, source));
+                assertNull(journal.getCompletedTarget("group_test", ExecutionPlan.Operation.COPY, source));
+                assertEquals(List.of(target.toFile()), journal.getMovedEntries("group_test"));
+            }
+        }
+
+        @Test
+        void resumedCreateDoesNotFailOnItsOwnFiles() throws IOException {
+            ArrayList<Parameter> params = new ArrayList<>();
+            params.add(new Parameter("name", "hello_${ITERATOR}.txt"));
+            params.add(new Parameter("count", "3"));
+            params.add(new Parameter("path", rootDirectory.getAbsolutePath()));
+            Instruction instruction = new Instruction("create_test");
+            instruction.setAction(new Action(":create_file"));
+            for (Parameter p : params) {
+                instruction.addParameter(p);
+            }
+
+            // interrupted before the execution completed
+            try (OperationJournal journal = OperationJournal.create(journalPath)) {
+                ExecutionContext interrupted = new ExecutionContext(null, journal, null);
+                journal.begin("create_test", interrupted.getMemory());
+                new InstructionRunner(new ConsoleReporter(), interrupted).runCreateInstruction(instruction, "file", null);
+            }
+
+            // the resumed run starts with empty memory
+            ExecutionContext resumed;
+            try (OperationJournal journal = OperationJournal.resume(journalPath)) {
+                resumed = new ExecutionContext(null, journal, null);
+                assertFalse(journal.begin("create_test", resumed.getMemory()));
+                new InstructionRunner(new ConsoleReporter(), resumed).runCreateInstruction(instruction, "file", null);
+            }
+            assertEquals(3, resumed.getMemory().getGroupedFiles("create_test").size());
+        }
+
+        @Test
+        void recordsAreWrittenBeforeTheBatchIsSynced() throws IOException {
+            try (OperationJournal journal = OperationJournal.create(journalPath)) {
+                journal.begin("create_test", memory);
+                journal.record("create_test", ExecutionPlan.Operation.CREATE_FILE, null, rootDirectory.toPath().resolve("apple.txt"));
+
+                // a killed process still leaves the record in the file
+                assertEquals(1, Files.readAllLines(journalPath).size());
+            }
+        }
+
+        @Test
+        void rollbackMovesEntriesBackNewestFirst() throws IOException {
+            Path folder = Files.createDirectory(rootDirectory.toPath().resolve("fruit"));
+            Path apple = Files.createFile(folder.resolve("apple.txt"));
+            Path output = Files.createDirectory(rootDirectory.toPath().resolve("output"));
+
+            try (OperationJournal journal = OperationJournal.create(journalPath)) {
+                journal.begin("rename_test", memory);
+                Path renamed = folder.resolve("APPLE.txt");
+                Files.move(apple, renamed);
+                journal.record("rename_test", ExecutionPlan.Operation.RENAME, apple, renamed);
+
+                journal.begin("group_test", memory);
+                Files.move(renamed, output.resolve("APPLE.txt"));
+                journal.record("group_test", ExecutionPlan.Operation.MOVE, renamed, output.resolve("APPLE.txt"));
+            }
+
+            assertEquals(2, OperationJournal.rollback(journalPath, new ConsoleReporter()));
+            assertTrue(Files.exists(apple));
+            assertFalse(Files.exists(output.resolve("APPLE.txt")));
+            assertEquals(0, Files.size(journalPath));
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void truncatedLinesAreIgnored() throws IOException {
+            Files.writeString(journalPath, "OP\t1:group_test\tMOVE\t/a\t/b\nDONE\t1:group_test\nOP\t2:group");
+
+            try (OperationJournal journal = OperationJournal.resume(journalPath)) {
+                assertTrue(journal.begin("group_test", memory));
+                assertFalse(journal.begin("group_test", memory));
+            }
+        }
+
+        @Test
+        void rollbackKeepsEntriesThatCanNotBeMovedBack() throws IOException {
+            Path apple = Files.createFile(rootDirectory.toPath().resolve("apple.txt"));
+            Files.writeString(journalPath, "OP\t1:group_test\tMOVE\t" + apple + "\t" + rootDirectory.toPath().resolve("gone.txt") + "\n");
+
+            assertEquals(0, OperationJournal.rollback(journalPath, new ConsoleReporter()));
+            assertTrue(Files.exists(apple));
+            // kept so the rollback can be retried
+            assertEquals(1, Files.readAllLines(journalPath).size());
+            assertTrue(Files.readString(journalPath).contains("gone.txt"));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenamePlanTest {
+
+    @TempDir
+    File rootDirectory;
+
+    // Creates a file holding its own name, so a test can tell where every file ended up
+    private File file(String name) throws IOException {
+        File file = new File(rootDirectory, name);
+        Files.writeString(file.toPath(), name);
+        return file;
+    }
+
+    private String content(String name) throws IOException {
+        return Files.readString(new File(rootDirectory, name).toPath());
+    }
+
+    private static RenamePlan build(List<File> files, Map<String, String> names) {
+        return RenamePlan.build(files, file -> names.getOrDefault(file.getName(), file.getName()));
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void chainIsAppliedFromItsEnd() throws IOException {
+            // b.txt is renamed away, so a.txt can take its name afterwards
+            List<File> files = List.of(file("a.txt"), file("b.txt"));
+            RenamePlan plan = build(files, Map.of("a.txt", "b.txt", "b.txt", "c.txt"));
+
+            ArrayList<String> applied = new ArrayList<>();
+            plan.apply(1, rename -> applied.add(rename.getSource().getName() + ">" + rename.getTarget().getName()));
+            plan.throwFailures("rename");
+
+            assertEquals(List.of("b.txt>c.txt", "a.txt>b.txt"), applied);
+            assertEquals(2, plan.getRenamedCount());
+            assertFalse(new File(rootDirectory, "a.txt").exists());
+            assertEquals("a.txt", content("b.txt"));
+            assertEquals("b.txt", content("c.txt"));
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void swapIsRefused() throws IOException {
+            List<File> files = List.of(file("a.txt"), file("b.txt"));
+            RenamePlan plan = build(files, Map.of("a.txt", "b.txt", "b.txt", "a.txt"));
+            plan.apply(1, rename -> fail("Nothing should be renamed"));
+
+            assertTrue(plan.getRenames().isEmpty());
+            Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> plan.throwFailures("rename"));
+            assertEquals(String.format("Error encountered running instruction: rename. Failed to rename 2 file(s): "
+                            + "%s (b.txt already exists and is renamed in a cycle), %s (a.txt already exists and is renamed in a cycle)",
+                    files.get(0).getAbsolutePath(), files.get(1).getAbsolutePath()), exception.getMessage());
+            assertEquals("a.txt", content("a.txt"));
+            assertEquals("b.txt", content("b.txt"));
+        }
+
+        @Test
+        void chainOntoAFailedRenameIsRefused() throws IOException {
+            // c.txt is not renamed, so b.txt stays and a.txt can not take its name
+            file("c.txt");
+            List<File> files = List.of(file("a.txt"), file("b.txt"));
+            RenamePlan plan = build(files, Map.of("a.txt", "b.txt", "b.txt", "c.txt"));
+
+            assertTrue(plan.getRenames().isEmpty());
+            Exception exception = assertThrows(SimpleFilesExecutionException.class, () -> plan.throwFailures("rename"));
+            assertEquals(String.format("Error encountered running instruction: rename. Failed to rename 2 file(s): "
+                            + "%s (c.txt already exists), %s (b.txt already exists)",
+                    files.get(1).getAbsolutePath(), files.get(0).getAbsolutePath()), exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package evaluator;
+
+import errors.SimpleFilesExecutionException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenameTransformTest {
+
+    @TempDir
+    File rootDirectory;
+
+    // Creates a file modified at the given time and reads it like a walk does
+    private FileEntry entry(String name, long modified) throws IOException {
+        Path path = Files.createFile(rootDirectory.toPath().resolve(name));
+        Files.setLastModifiedTime(path, FileTime.fromMillis(modified));
+        return FileEntry.read(path);
+    }
+
+    @Nested
+    public class HappyPath {
+
+        @Test
+        void caseModes() {
+            assertEquals("HELLO_WORLD", RenameTransform.compile("rename", Map.of("mode", "upper_case")).apply("hello_World"));
+            assertEquals("helloWorldAgain", RenameTransform.compile("rename", Map.of("mode", "camel_case")).apply("Hello_world-again"));
+            assertEquals("hello_world_again", RenameTransform.compile("rename", Map.of("mode", "snake_case")).apply("helloWorld again"));
+            assertEquals("Hello_World", RenameTransform.compile("rename", Map.of("mode", "keep")).apply("Hello_World"));
+        }
+
+        @Test
+        void missingModeIsLowerCase() {
+            assertEquals("hello", RenameTransform.compile("rename", Map.of()).apply("HELLO"));
+        }
+
+        @Test
+        void findReplaceWithGroupsThenPrefixAndSuffix() {
+            RenameTransform transform = RenameTransform.compile("rename", Map.of(
+                    "mode", "keep", "find", "(\\d+)_(\\w+)", "replace", "$2_$1", "prefix", "new_", "suffix", "_v2"));
+
+            assertEquals("new_report_2024_v2", transform.apply("2024_report"));
+        }
+
+        @Test
+        void sequenceByName() throws IOException {
+            List<FileEntry> entries = List.of(entry("b.txt", 0), entry("a.txt", 0), entry("c", 0));
+            Function<File, String> names = RenameTransform.compile("rename", Map.of("mode", "upper_case", "sequence", "name")).forFiles(entries);
+
+            assertEquals("A_1.txt", names.apply(entries.get(1).toFile()));
+            assertEquals("B_2.txt", names.apply(entries.get(0).toFile()));
+            assertEquals("C_3", names.apply(entries.get(2).toFile()));
+        }
+
+        @Test
+        void sequenceByModifiedDateOfTheWalkedAttributes() throws IOException {
+            List<FileEntry> entries = List.of(entry("a.txt", 2000), entry("b.txt", 1000));
+            // touched after the walk, the sequence still follows the attributes read by the walk
+            Files.setLastModifiedTime(entries.get(1).getPath(), FileTime.fromMillis(3000));
+            Function<File, String> names = RenameTransform.compile("rename", Map.of("mode", "keep", "sequence", "modified_date")).forFiles(entries);
+
+            assertEquals("b_1.txt", names.apply(entries.get(1).toFile()));
+            assertEquals("a_2.txt", names.apply(entries.get(0).toFile()));
+        }
+    }
+
+    @Nested
+    public class UnhappyPath {
+
+        @Test
+        void invalidFind() {
+            Exception exception = assertThrows(SimpleFilesExecutionException.class,
+                    () -> RenameTransform.compile("rename", Map.of("mode", "keep", "find", "(a", "replace", "b")));
+            assertEquals(exception.getMessage(), "Error encountered running instruction: rename. Invalid find or replace: (a.");
+        }
+
+        @Test
+        void replaceWithMissingGroup() {
+            Exception exception = assertThrows(SimpleFilesExecutionException.class,
+                    () -> RenameTransform.compile("rename", Map.of("mode", "keep", "find", "a", "replace", "$1")));
+            assertEquals(exception.getMessage(), "Error encountered running instruction: rename. Invalid find or replace: a.");
+        }
+
+        @Test
+        void unknownMode() {
+            Exception exception = assertThrows(SimpleFilesExecutionException.class,
+                    () -> RenameTransform.compile("rename", Map.of("mode", "camelcase")));
+            assertEquals(exception.getMessage(), "Error encountered running instruction: rename. Unknown mode: camelcase.");
+        }
+
+        @Test
+        void unknownSequence() {
+            Exception exception = assertThrows(SimpleFilesExecutionException.class,
+                    () -> RenameTransform.compile("rename", Map.of("mode", "keep", "sequence", "size")));
+            assertEquals(exception.getMessage(), "Error encountered running instruction: rename. Unknown sequence: size.");
+        }
+    }
+}
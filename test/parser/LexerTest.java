@@ -249,6 +249,22 @@ public class LexerTest {
                 assertEquals((tokens.get(8)).getText().trim(), "\"/some/path with a space\"");
             }
         }
+
+        @Test
+        void regexParameterValue() {
+            SimpleFilesLexer lexer = new SimpleFilesLexer(CharStreams.fromString("""
+                    BEGIN
+                    INST rename_inst -> :rename
+                    --> find = "^([a-z]+)_(\\d*)?|x+$";
+                    END
+                    """));
+            lexer.addErrorListener(SimpleFilesErrorListener.INSTANCE);
+            List<? extends Token> tokens = lexer.getAllTokens();
+            tokens.removeIf(t -> t.getChannel() != 0);
+
+            assertEquals(SimpleFilesLexer.PARAM_VAL, (tokens.get(8)).getType());
+            assertEquals("\"^([a-z]+)_(\\d*)?|x+$\"", (tokens.get(8)).getText().trim());
+        }
     }
 
     @Nested